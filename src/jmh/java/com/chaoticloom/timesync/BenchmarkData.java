@@ -0,0 +1,29 @@
+package com.chaoticloom.timesync;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recorded inputs shared by the benchmarks.
+ */
+final class BenchmarkData {
+    // Hand-made open-meteo response for the default location (timeformat=unixtime, 4 days x 24 hours), written to
+    // match the documented response shape. Not recorded from the live API, replace it with a real response when possible
+    static final String FORECAST_PAYLOAD = "open-meteo-forecast.json";
+
+    // Every WMO code the mod knows about, plus a couple it doesn't
+    static final int[] WMO_CODES = {0, 1, 2, 3, 45, 48, 51, 53, 55, 56, 57, 61, 63, 65, 66, 67, 71, 73, 75, 77, 80, 81, 82, 85, 86, 95, 96, 99, 4, 100};
+
+    private BenchmarkData() {}
+
+    static String read(String resource) {
+        try (InputStream in = BenchmarkData.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Missing benchmark resource " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.chaoticloom.timesync;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of the synced clock. TimeSync.getSyncedTime is a registry lookup on top of this.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClockBenchmark {
+    private CreationTimestamps.Stamp creation;
+
+    @Setup
+    public void setup() {
+        creation = CreationTimestamps.Stamp.of(System.currentTimeMillis() - 42L * 24 * 60 * 60 * 1000);
+    }
+
+    @Benchmark
+    public long syncedTime() {
+        return SolarClock.getTicks(creation.epochDay(), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long epochDayOf() {
+        return SolarClock.epochDayOf(creation.millis());
+    }
+}
@@ -0,0 +1,64 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.Bootstrap;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab list footer, rebuilt once per second per group of vanilla players on the server, and by each modded client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TabListBenchmark {
+    private WeatherCache forecast;
+    private final Translations.Table lang = Translations.get("es_es");
+    private final FooterRenderer renderer = new FooterRenderer();
+    private final long nowMillis = LocalDateTime.of(2026, 10, 17, 10, 15, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private final long totalTicks = 421L * 24000L + 6000L;
+    private long secondsElapsed;
+
+    @Setup
+    public void setup() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+
+        forecast = WeatherService.parse(new StringReader(BenchmarkData.read(BenchmarkData.FORECAST_PAYLOAD))).get(0);
+    }
+
+    /**
+     * Once per forecast, when it arrives.
+     */
+    @Benchmark
+    public DailyForecastIndex buildDailyIndex() {
+        return DailyForecastIndex.of(forecast.codes());
+    }
+
+    @Benchmark
+    public int dailyForecast() {
+        return forecast.daily().representativeCode(1);
+    }
+
+    @Benchmark
+    public Component buildFooter() {
+        return renderer.buildFooter(0, lang, totalTicks, nowMillis, forecast).component();
+    }
+
+    /**
+     * What the server does every second: the clock moves, so the date segment is rebuilt each call
+     * and the weather segment once every 3600 calls.
+     */
+    @Benchmark
+    public Component buildFooterEverySecond() {
+        return renderer.buildFooter(0, lang, totalTicks, nowMillis + 1000L * secondsElapsed++, forecast).component();
+    }
+}
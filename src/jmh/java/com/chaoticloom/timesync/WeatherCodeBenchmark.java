@@ -0,0 +1,41 @@
+package com.chaoticloom.timesync;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WMO code lookups, called several times per code by the tab list and every frame by the fog mixin.
+ * Each op resolves every code in {@link BenchmarkData#WMO_CODES}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherCodeBenchmark {
+    private final int[] codes = BenchmarkData.WMO_CODES;
+
+    @Benchmark
+    public void weatherConditionOf(Blackhole blackhole) {
+        for (int code : codes) {
+            blackhole.consume(WeatherCondition.of(code));
+        }
+    }
+
+    @Benchmark
+    public void weatherStateFromCode(Blackhole blackhole) {
+        for (int code : codes) {
+            blackhole.consume(WeatherState.fromCode(code));
+        }
+    }
+
+    @Benchmark
+    public void weatherStateStrengthFromCode(Blackhole blackhole) {
+        for (int code : codes) {
+            blackhole.consume(WeatherStateStrength.fromCode(code));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.chaoticloom.timesync;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Refresh path without network: a replayed fetch for every location, and the binary fallback file round trip.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherRefreshBenchmark {
+    @Param({"1", "8"})
+    public int locationCount;
+
+    private Path directory;
+    private ReplayWeatherProvider provider;
+    private List<WeatherLocation> locations;
+    private WeatherCache forecast;
+    private Path cacheFile;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("timesync-replay");
+        Files.writeString(directory.resolve("default.json"), BenchmarkData.read(BenchmarkData.FORECAST_PAYLOAD), StandardCharsets.UTF_8);
+
+        provider = new ReplayWeatherProvider(directory, 0, 0, true, 0);
+        locations = new ArrayList<>();
+        for (int i = 0; i < locationCount; i++) {
+            locations.add(new WeatherLocation("location-" + i, 37.3279072, -5.9400771));
+        }
+
+        forecast = provider.fetch(locations).join().get(0);
+        cacheFile = directory.resolve("weather_cache_default.bin");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<WeatherCache> replayFetch() {
+        return provider.fetch(locations).join();
+    }
+
+    @Benchmark
+    public WeatherCache fallbackFileRoundTrip() throws IOException {
+        ForecastFile.write(cacheFile, forecast);
+        return ForecastFile.read(cacheFile);
+    }
+}
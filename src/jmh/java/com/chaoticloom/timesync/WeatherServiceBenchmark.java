@@ -0,0 +1,37 @@
+package com.chaoticloom.timesync;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forecast parsing (once per refresh) and the current hour lookup (every weather update, tab list and fog).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherServiceBenchmark {
+    private String payload;
+    private WeatherCache forecast;
+
+    @Setup
+    public void setup() {
+        payload = BenchmarkData.read(BenchmarkData.FORECAST_PAYLOAD);
+        forecast = WeatherService.parse(new StringReader(payload)).get(0);
+    }
+
+    @Benchmark
+    public List<WeatherCache> parseForecast() {
+        return WeatherService.parse(new StringReader(payload));
+    }
+
+    @Benchmark
+    public int codeForCurrentHour() {
+        return WeatherService.getCodeForCurrentHour(forecast);
+    }
+}
@@ -0,0 +1,284 @@
+package com.chaoticloom.timesync;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the offline catch-up of loaded chunks ({@link TimeSkipManager#processChunk}) within a per-tick time budget.
+ *
+ * <ul>
+ *     <li>Work is keyed by chunk position. Queuing a chunk twice keeps one entry, and unloading a chunk drops its
+ *     entry, so the queue never holds on to chunks.</li>
+ *     <li>Chunks closest to an online player go first. The order is refreshed every {@link #REORDER_INTERVAL} ticks
+ *     and whenever new work arrives.</li>
+ *     <li>The budget is whatever keeps the tick under {@link #TARGET_TICK_MILLIS}, judged from the server's average
+ *     tick time minus our own share of it. When the server is already slow nothing runs.</li>
+ *     <li>A chunk that doesn't fit in the budget stops mid-way and continues next tick from the same change or
+ *     position.</li>
+ *     <li>Crop growth is computed on {@link #WORKERS} from a {@link ChunkSnapshot}, up to {@link #MAX_IN_FLIGHT}
+ *     chunks at a time. While a chunk waits for its result the next ones get their turn, and only applying the
+ *     result touches the world.</li>
+ * </ul>
+ */
+public final class CatchUpScheduler {
+    private static final double TARGET_TICK_MILLIS = 45.0; // Leaves some room below 50 ms for the tick's variance
+    private static final double MAX_BUDGET_MILLIS = 25.0;
+    private static final int REORDER_INTERVAL = 20;
+    private static final int MAX_IN_FLIGHT = 256;
+
+    static final ForkJoinPool WORKERS = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("TimeSync-CatchUp-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, true);
+
+    enum Progress {
+        DONE,
+        OUT_OF_BUDGET,
+        WAITING // For the workers, other chunks can go meanwhile
+    }
+
+    /**
+     * Pending catch-up of one chunk, and how far it got.
+     */
+    static final class Work {
+        final ServerLevel level;
+        final long pos;
+        long ticksSkipped;
+        boolean removed;
+        private long priority;
+
+        // Progress, see TimeSkipManager.processChunk
+        CompletableFuture<CropGrowth.Diff> crops = null;
+        int cropChange = 0;
+        List<BlockPos> handled = null;
+        int handledNext = 0;
+
+        Work(ServerLevel level, long pos, long ticksSkipped) {
+            this.level = level;
+            this.pos = pos;
+            this.ticksSkipped = ticksSkipped;
+        }
+    }
+
+    // Server thread only
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Work>> QUEUE = new HashMap<>();
+    private static final List<Work> ORDER = new ArrayList<>();
+    private static int cursor = 0;
+    private static boolean dirty = false;
+    private static int ticksSinceReorder = 0;
+    private static double ownAverageMillis = 0; // Same smoothing as the server's average tick time
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private CatchUpScheduler() {}
+
+    public static void init() {
+        TickScheduler.every("time-skip", 1, CatchUpScheduler::tick);
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            QUEUE.clear();
+            ORDER.clear();
+            cursor = 0;
+            ownAverageMillis = 0;
+        });
+    }
+
+    /**
+     * Queues the catch-up of a chunk. Queuing one that is already pending keeps the longer skip.
+     */
+    public static void enqueue(ServerLevel level, ChunkPos pos, long ticksSkipped) {
+        if (ticksSkipped <= 0) return;
+
+        Long2ObjectMap<Work> pending = QUEUE.computeIfAbsent(level.dimension(), key -> new Long2ObjectOpenHashMap<>());
+        Work work = pending.get(pos.toLong());
+        if (work != null) {
+            work.ticksSkipped = Math.max(work.ticksSkipped, ticksSkipped);
+            return;
+        }
+
+        pending.put(pos.toLong(), new Work(level, pos.toLong(), ticksSkipped));
+        dirty = true;
+    }
+
+    /**
+     * Drops the pending catch-up of a chunk, called when it unloads.
+     * @return The ticks it still had to catch up, see {@link #outstandingTicks}.
+     */
+    public static long cancel(ServerLevel level, ChunkPos pos) {
+        Long2ObjectMap<Work> pending = QUEUE.get(level.dimension());
+        if (pending == null) return 0;
+
+        Work work = pending.remove(pos.toLong());
+        if (work == null) return 0;
+
+        work.removed = true;
+        return outstanding(work);
+    }
+
+    /**
+     * Returns how many ticks behind a chunk still is. The skip is owed in full until the whole chunk is done: crops
+     * already applied may then grow again for that span on the next load (at most up to their max age), which is
+     * better than the blocks that didn't get their turn losing it.
+     */
+    public static long outstandingTicks(ServerLevel level, ChunkPos pos) {
+        Long2ObjectMap<Work> pending = QUEUE.get(level.dimension());
+        if (pending == null) return 0;
+
+        Work work = pending.get(pos.toLong());
+        return work == null ? 0 : outstanding(work);
+    }
+
+    private static long outstanding(Work work) {
+        return work.ticksSkipped;
+    }
+
+    /**
+     * Runs the crop computation of a chunk on the workers, or returns null if too many are already running.
+     */
+    static CompletableFuture<CropGrowth.Diff> submit(Supplier<CropGrowth.Diff> task) {
+        if (IN_FLIGHT.incrementAndGet() > MAX_IN_FLIGHT) {
+            IN_FLIGHT.decrementAndGet();
+            return null;
+        }
+
+        CompletableFuture<CropGrowth.Diff> future = CompletableFuture.supplyAsync(task, WORKERS);
+        future.whenComplete((diff, e) -> {
+            IN_FLIGHT.decrementAndGet();
+            if (e != null) TimeSync.LOGGER.error("Crop catch-up failed", e);
+        });
+        return future;
+    }
+
+    public static int size() {
+        int size = 0;
+        for (Long2ObjectMap<Work> pending : QUEUE.values()) {
+            size += pending.size();
+        }
+        return size;
+    }
+
+    private static void tick(MinecraftServer server) {
+        if (QUEUE.isEmpty()) {
+            ownAverageMillis *= 0.8;
+            return;
+        }
+
+        long start = System.nanoTime();
+        double budgetMillis = budgetMillis(server.getAverageTickTime());
+        if (budgetMillis > 0) {
+            run(start + (long) (budgetMillis * 1_000_000L));
+        }
+
+        double spentMillis = (System.nanoTime() - start) / 1_000_000.0;
+        ownAverageMillis = ownAverageMillis * 0.8 + spentMillis * 0.2;
+    }
+
+    /**
+     * What we can spend this tick: the room between the rest of the tick and the target.
+     */
+    private static double budgetMillis(float averageTickMillis) {
+        double restOfTick = Math.max(0, averageTickMillis - ownAverageMillis);
+        return Math.min(MAX_BUDGET_MILLIS, TARGET_TICK_MILLIS - restOfTick);
+    }
+
+    private static void run(long deadline) {
+        if (dirty || ++ticksSinceReorder >= REORDER_INTERVAL) {
+            reorder();
+        }
+
+        // Chunks waiting for the workers keep the cursor, so they are checked again next tick
+        for (int i = cursor; i < ORDER.size() && System.nanoTime() < deadline; i++) {
+            Work work = ORDER.get(i);
+            if (work.removed) {
+                if (i == cursor) cursor++;
+                continue;
+            }
+
+            ChunkPos pos = new ChunkPos(work.pos);
+            LevelChunk chunk = work.level.getChunkSource().getChunkNow(pos.x, pos.z);
+            Progress progress = chunk == null ? Progress.DONE : TimeSkipManager.processChunk(work.level, chunk, work, deadline);
+
+            if (progress == Progress.DONE) {
+                if (chunk != null) ChunkLedger.stamp(work.level, pos, System.currentTimeMillis());
+                remove(work);
+                if (i == cursor) cursor++;
+            } else if (progress == Progress.OUT_OF_BUDGET) {
+                break; // Out of budget in the middle of this chunk, it continues next tick
+            }
+        }
+
+        if (cursor >= ORDER.size()) {
+            ORDER.clear();
+            cursor = 0;
+        }
+    }
+
+    private static void remove(Work work) {
+        work.removed = true;
+        Long2ObjectMap<Work> pending = QUEUE.get(work.level.dimension());
+        if (pending == null) return;
+
+        pending.remove(work.pos);
+        if (pending.isEmpty()) QUEUE.remove(work.level.dimension());
+    }
+
+    /**
+     * Sorts the pending chunks by squared chunk distance to the closest player in the same level.
+     * A chunk already in progress stays first so its partial work isn't left hanging.
+     */
+    private static void reorder() {
+        Work inProgress = cursor < ORDER.size() && !ORDER.get(cursor).removed ? ORDER.get(cursor) : null;
+
+        ORDER.clear();
+        cursor = 0;
+        dirty = false;
+        ticksSinceReorder = 0;
+
+        for (Long2ObjectMap<Work> pending : QUEUE.values()) {
+            if (pending.isEmpty()) continue;
+
+            List<ServerPlayer> players = pending.values().iterator().next().level.players();
+            for (Work work : pending.values()) {
+                work.priority = work == inProgress ? Long.MIN_VALUE : distanceToClosest(work.pos, players);
+                ORDER.add(work);
+            }
+        }
+
+        ORDER.sort(Comparator.comparingLong(work -> work.priority));
+    }
+
+    private static long distanceToClosest(long pos, List<ServerPlayer> players) {
+        int x = ChunkPos.getX(pos);
+        int z = ChunkPos.getZ(pos);
+
+        long closest = Long.MAX_VALUE;
+        for (ServerPlayer player : players) {
+            ChunkPos playerPos = player.chunkPosition();
+            long dx = playerPos.x - x;
+            long dz = playerPos.z - z;
+            closest = Math.min(closest, dx * dx + dz * dz);
+        }
+        return closest;
+    }
+}
@@ -0,0 +1,193 @@
+package com.chaoticloom.timesync;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * When each chunk was last simulated, so a chunk that loads catches up exactly for the time it spent unloaded,
+ * whether the server was down or just nobody was around.
+ *
+ * One file per region and dimension, {@code timesync/r.<x>.<z>.bin} next to the region folder, holding 1024 longs
+ * (epoch millis, 0 = never stamped) indexed like the region file itself. Files are memory mapped while any chunk of
+ * the region is loaded and closed once the last one unloads, so memory follows the loaded area instead of growing
+ * over the session.
+ *
+ * Chunks are stamped once their catch-up is done (right at load if there is none), when they unload, every
+ * {@link #STAMP_INTERVAL} ticks and when the server stops. Until then the old stamp stays, so a crash before the
+ * catch-up ran leaves it owed. The periodic stamp bounds how much a chunk catches up twice after a crash.
+ * Server thread only.
+ */
+public final class ChunkLedger {
+    private static final int STAMP_INTERVAL = 1200; // 60 seconds
+    private static final int REGION_SIZE = 32;
+    private static final int FILE_SIZE = REGION_SIZE * REGION_SIZE * Long.BYTES;
+    private static final String FOLDER = TimeSync.MOD_ID;
+
+    private static final class Region {
+        final FileChannel channel;
+        final MappedByteBuffer stamps;
+        int loadedChunks = 0;
+
+        Region(FileChannel channel, MappedByteBuffer stamps) {
+            this.channel = channel;
+            this.stamps = stamps;
+        }
+    }
+
+    private static final Map<ServerLevel, Long2ObjectMap<Region>> REGIONS = new HashMap<>();
+    private static boolean running = false;
+
+    private ChunkLedger() {}
+
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> running = true);
+
+        TickScheduler.every("chunk-ledger", STAMP_INTERVAL, server -> stampLoaded(server, true));
+
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> stampLoaded(server, false));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            running = false;
+            for (Long2ObjectMap<Region> regions : REGIONS.values()) {
+                for (Region region : regions.values()) {
+                    close(region);
+                }
+            }
+            REGIONS.clear();
+        });
+    }
+
+    /**
+     * Records that a chunk loaded. Its stamp is left alone until the catch-up it is owed has run, see {@link #stamp}.
+     * @return When the chunk was last stamped, 0 if never.
+     */
+    public static long onLoad(ServerLevel level, ChunkPos pos) {
+        if (!running) return 0;
+
+        Region region = region(level, pos, true);
+        if (region == null) return 0;
+
+        region.loadedChunks++;
+        return region.stamps.getLong(offset(pos));
+    }
+
+    /**
+     * Records that a loaded chunk is simulated up to simulatedMillis, for instance once its catch-up is done.
+     */
+    public static void stamp(ServerLevel level, ChunkPos pos, long simulatedMillis) {
+        if (!running) return;
+
+        Region region = region(level, pos, false);
+        if (region != null) region.stamps.putLong(offset(pos), simulatedMillis);
+    }
+
+    /**
+     * Records that a chunk unloaded, simulated up to simulatedMillis.
+     */
+    public static void onUnload(ServerLevel level, ChunkPos pos, long simulatedMillis) {
+        if (!running) return;
+
+        Region region = region(level, pos, false);
+        if (region == null) return;
+
+        region.stamps.putLong(offset(pos), simulatedMillis);
+        if (--region.loadedChunks <= 0) {
+            REGIONS.get(level).remove(ChunkPos.asLong(pos.getRegionX(), pos.getRegionZ()));
+            close(region);
+        }
+    }
+
+    private static void stampLoaded(MinecraftServer server, boolean force) {
+        if (!running) return;
+
+        long now = System.currentTimeMillis();
+        for (ServerLevel level : server.getAllLevels()) {
+            Long2ObjectMap<Region> regions = REGIONS.get(level);
+            if (regions == null || regions.isEmpty()) continue;
+
+            for (ChunkHolder holder : level.getChunkSource().chunkMap.getChunks()) {
+                LevelChunk chunk = holder.getFullChunk();
+                if (chunk == null) continue;
+
+                ChunkPos pos = chunk.getPos();
+                Region region = regions.get(ChunkPos.asLong(pos.getRegionX(), pos.getRegionZ()));
+                if (region != null) {
+                    region.stamps.putLong(offset(pos), now - CatchUpScheduler.outstandingTicks(level, pos) * 50L);
+                }
+            }
+
+            if (force) {
+                for (Region region : regions.values()) {
+                    region.stamps.force();
+                }
+            }
+        }
+    }
+
+    private static Region region(ServerLevel level, ChunkPos pos, boolean create) {
+        Long2ObjectMap<Region> regions = REGIONS.computeIfAbsent(level, key -> new Long2ObjectOpenHashMap<>());
+        long key = ChunkPos.asLong(pos.getRegionX(), pos.getRegionZ());
+
+        Region region = regions.get(key);
+        if (region != null || !create) return region;
+
+        Path folder = DimensionType.getStorageFolder(level.dimension(), level.getServer().getWorldPath(LevelResource.ROOT)).resolve(FOLDER);
+        Path path = folder.resolve("r." + pos.getRegionX() + "." + pos.getRegionZ() + ".bin");
+
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(folder);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() != 0 && channel.size() != FILE_SIZE) {
+                LOGGER.warn("Ignoring chunk ledger {} with unexpected size {}.", path, channel.size());
+                channel.truncate(0);
+            }
+
+            region = new Region(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE));
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            LOGGER.error("Failed to open chunk ledger " + path, e);
+            return null;
+        }
+
+        regions.put(key, region);
+        return region;
+    }
+
+    private static void close(Region region) {
+        try {
+            region.stamps.force();
+            region.channel.close();
+        } catch (IOException e) {
+            LOGGER.error("Failed to close chunk ledger", e);
+        }
+    }
+
+    private static int offset(ChunkPos pos) {
+        return (pos.getRegionLocalZ() * REGION_SIZE + pos.getRegionLocalX()) * Long.BYTES;
+    }
+}
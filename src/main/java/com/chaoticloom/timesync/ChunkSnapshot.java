@@ -0,0 +1,149 @@
+package com.chaoticloom.timesync;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.material.FluidState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable copy of what the crop catch-up of one chunk reads, so it can run off the server thread.
+ *
+ * Holds copies of the block palettes of every section with crops and of the section below it (farmland), for the
+ * chunk and its loaded neighbours, since growth speed looks one block around each crop. Light can't be read off
+ * thread, so the brightness of each crop is read while taking the snapshot. Anything outside the copied sections
+ * reads as air.
+ */
+public final class ChunkSnapshot implements BlockGetter {
+    private final int minBuildHeight;
+    private final int height;
+    private final Long2ObjectMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+
+    // Crops to visit, as section << 12 | packed position (see TimeSensitiveIndex), and the brightness at each
+    private final int[] crops;
+    private final byte[] brightness;
+    private final int cropsSectionOffset;
+    private final int chunkX;
+    private final int chunkZ;
+
+    private ChunkSnapshot(LevelChunk chunk, int[] crops, byte[] brightness) {
+        this.minBuildHeight = chunk.getMinBuildHeight();
+        this.height = chunk.getHeight();
+        this.crops = crops;
+        this.brightness = brightness;
+        this.cropsSectionOffset = chunk.getMinSection();
+        this.chunkX = chunk.getPos().x;
+        this.chunkZ = chunk.getPos().z;
+    }
+
+    /**
+     * Takes the snapshot, server thread only.
+     */
+    public static ChunkSnapshot take(ServerLevel level, LevelChunk chunk, TimeSensitiveIndex index) {
+        IntArrayList entries = new IntArrayList();
+        for (int section = 0; section < index.sectionCount(); section++) {
+            for (short packed : index.get(TrackedKind.CROP, section)) {
+                entries.add(section << 12 | (packed & 0xFFF));
+            }
+        }
+
+        int[] crops = entries.toIntArray();
+        byte[] brightness = new byte[crops.length];
+        ChunkSnapshot snapshot = new ChunkSnapshot(chunk, crops, brightness);
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        int lastSection = -1;
+        for (int i = 0; i < crops.length; i++) {
+            int section = crops[i] >>> 12;
+            brightness[i] = (byte) level.getRawBrightness(TimeSensitiveIndex.unpack(chunk, section, (short) crops[i], pos), 0);
+
+            if (section != lastSection) {
+                snapshot.copySections(level, chunk, section);
+                lastSection = section;
+            }
+        }
+        return snapshot;
+    }
+
+    private void copySections(ServerLevel level, LevelChunk chunk, int section) {
+        int sectionY = chunk.getSectionYFromSectionIndex(section);
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                LevelChunk neighbour = dx == 0 && dz == 0 ? chunk : level.getChunkSource().getChunkNow(chunkX + dx, chunkZ + dz);
+                if (neighbour == null) continue;
+
+                for (int y = sectionY - 1; y <= sectionY; y++) {
+                    long key = SectionPos.asLong(chunkX + dx, y, chunkZ + dz);
+                    if (sections.containsKey(key)) continue;
+
+                    int sectionIndex = neighbour.getSectionIndexFromSectionY(y);
+                    if (sectionIndex < 0 || sectionIndex >= neighbour.getSectionsCount()) continue;
+
+                    LevelChunkSection copied = neighbour.getSection(sectionIndex);
+                    if (!copied.hasOnlyAir()) sections.put(key, copied.getStates().copy());
+                }
+            }
+        }
+    }
+
+    public int cropCount() {
+        return crops.length;
+    }
+
+    /**
+     * Section index and packed position of a crop, see {@link TimeSensitiveIndex#unpack}.
+     */
+    public int cropEntry(int i) {
+        return crops[i];
+    }
+
+    public int cropBrightness(int i) {
+        return brightness[i];
+    }
+
+    public BlockPos.MutableBlockPos cropPos(int i, BlockPos.MutableBlockPos pos) {
+        int entry = crops[i];
+        return pos.set((chunkX << 4) + (entry & 15),
+                SectionPos.sectionToBlockCoord(cropsSectionOffset + (entry >>> 12)) + (entry >> 8 & 15),
+                (chunkZ << 4) + (entry >> 4 & 15));
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        PalettedContainer<BlockState> states = sections.get(SectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        if (states == null) return Blocks.AIR.defaultBlockState();
+        return states.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getMinBuildHeight() {
+        return minBuildHeight;
+    }
+}
@@ -0,0 +1,55 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.components.PlayerTabOverlay;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Client-side tab list for servers running the mod.
+ *
+ * The server sends the forecast only when it changes ({@link ForecastSync}); the header and footer are rebuilt
+ * here once per second with the same {@link FooterRenderer} the server uses for vanilla clients, in the client's
+ * own language.
+ */
+public final class ClientTabList {
+    private static volatile ForecastSync.Payload payload = null;
+
+    // Client thread only
+    private static final FooterRenderer RENDERER = new FooterRenderer();
+    private static long lastSecond = Long.MIN_VALUE;
+
+    private ClientTabList() {}
+
+    public static void setPayload(ForecastSync.Payload newPayload) {
+        payload = newPayload;
+        lastSecond = Long.MIN_VALUE; // Redraw on the next tick
+    }
+
+    public static void reset() {
+        payload = null;
+        lastSecond = Long.MIN_VALUE;
+    }
+
+    public static void tick(Minecraft client) {
+        ForecastSync.Payload current = payload;
+        if (current == null || client.level == null) return; // Vanilla server, it sends the tab list itself
+
+        long nowMillis = ClockDiscipline.now();
+        long second = Math.floorDiv(nowMillis, 1000L);
+        if (second == lastSecond) return;
+        lastSecond = second;
+
+        long totalTicks = current.creation() != null
+                ? SolarClock.getTicks(current.creation().epochDay(), nowMillis)
+                : client.level.getDayTime();
+        Translations.Table lang = Translations.get(client.getLanguageManager().getSelected());
+
+        // A single location on the client, the server already picked the right forecast
+        FooterRenderer.Footer footer = RENDERER.buildFooter(0, lang, totalTicks, nowMillis, current.forecast());
+        Component header = RENDERER.buildHeader(lang, footer.lineWidth());
+
+        PlayerTabOverlay tabList = client.gui.getTabList();
+        tabList.setHeader(header);
+        tabList.setFooter(footer.component());
+    }
+}
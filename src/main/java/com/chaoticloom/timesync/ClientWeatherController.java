@@ -1,30 +1,49 @@
 package com.chaoticloom.timesync;
 
-import net.minecraft.util.Mth;
-
 /**
  * Holds the state for custom weather visuals.
  * This should only be accessed on the logical CLIENT.
+ *
+ * The server sends a {@link WeatherSync.Snapshot} whenever the weather or its next change moves. It is swapped in
+ * from the network thread, and the render mixins only read the condition resolved here once per tick.
  */
 public class ClientWeatherController {
 
+    private static volatile WeatherSync.Snapshot snapshot = WeatherSync.Snapshot.NONE;
+    private static volatile WeatherCondition condition = WeatherCondition.UNKNOWN;
+
     // 0.0 = Clear Sky, 1.0 = Fully Gray/Stormy appearance
     private static float targetCloudiness = 0.0f;
     private static float currentCloudiness = 0.0f;
 
-    public static void setCloudiness(float value) {
-        targetCloudiness = Mth.clamp(value, 0.0f, 1.0f);
+    public static void setSnapshot(WeatherSync.Snapshot value) {
+        snapshot = value;
+    }
+
+    public static WeatherCondition getCondition() {
+        return condition;
     }
 
     public static float getCloudiness() {
         return currentCloudiness;
     }
 
+    public static void reset() {
+        snapshot = WeatherSync.Snapshot.NONE;
+        condition = WeatherCondition.UNKNOWN;
+        targetCloudiness = 0.0f;
+        currentCloudiness = 0.0f;
+    }
+
     /**
      * Call this in a client tick event (e.g., ClientTickEvents.END_CLIENT_TICK)
      * to smoothly transition the sky color.
      */
     public static void tick() {
+        // Switch to the next forecast hour on our own, using the server's clock
+        condition = WeatherCondition.of(snapshot.codeAt(ClockDiscipline.now()));
+        targetCloudiness = condition.cloudiness();
+
         // Smoothly interpolate current value to target value
         if (currentCloudiness < targetCloudiness) {
             currentCloudiness += 0.01f;
@@ -34,4 +53,4 @@ public class ClientWeatherController {
             if (currentCloudiness < targetCloudiness) currentCloudiness = targetCloudiness;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package com.chaoticloom.timesync;
+
+/**
+ * NTP style estimation of the offset between this client's clock and the server's clock.
+ * This should only be accessed on the logical CLIENT.
+ *
+ * Every poll sends a short burst of probes over {@link TimeSync#SYNC_PACKET_ID} and keeps the sample with the
+ * lowest round trip, since that one had the least queueing delay. The offset is only stepped when it drifted more
+ * than {@link #STEP_THRESHOLD_MILLIS}; while it stays stable the poll interval keeps doubling.
+ */
+public final class ClockDiscipline {
+    private static final int BURST_SIZE = 4;
+    static final long BURST_SPACING_MILLIS = 500L; // Also what the server allows per player, see TimeSync
+    private static final long MIN_POLL_MILLIS = 64_000L; // ~1 minute
+    private static final long MAX_POLL_MILLIS = 1_024_000L; // ~17 minutes
+    private static final long STEP_THRESHOLD_MILLIS = 1_000L; // Well under a tick (3600 ms), so the sky never jumps
+
+    // Read every tick from the client thread
+    private static volatile long offsetMillis = 0;
+    private static volatile long roundTripMillis = -1;
+
+    // Poll state, guarded by the class lock (probes go out on the client thread, replies come in on the network thread)
+    private static boolean synced = false;
+    private static long pollIntervalMillis = MIN_POLL_MILLIS;
+    private static long nextProbeMillis = 0;
+    private static int probesSent = 0;
+    private static long bestRoundTrip = Long.MAX_VALUE;
+    private static long bestOffset = 0;
+
+    private ClockDiscipline() {}
+
+    /**
+     * Returns the estimated server wall clock.
+     */
+    public static long now() {
+        return System.currentTimeMillis() + offsetMillis;
+    }
+
+    public static long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public static long getRoundTripMillis() {
+        return roundTripMillis;
+    }
+
+    /**
+     * Returns true when a probe should be sent right now. Call it once per client tick.
+     */
+    public static synchronized boolean shouldProbe(long localNow) {
+        if (localNow < nextProbeMillis) return false;
+
+        if (probesSent == BURST_SIZE) {
+            finishBurst(localNow);
+            return false;
+        }
+
+        probesSent++;
+        // After the last probe, leave a bit more room for the replies before evaluating the burst
+        nextProbeMillis = localNow + (probesSent == BURST_SIZE ? BURST_SPACING_MILLIS * 2 : BURST_SPACING_MILLIS);
+        return true;
+    }
+
+    /**
+     * Feeds one probe exchange.
+     * @param clientSent     Client clock when the probe was sent (t0).
+     * @param serverReceived Server clock when the probe arrived (t1).
+     * @param serverSent     Server clock when the reply was sent (t2).
+     * @param clientReceived Client clock when the reply arrived (t3).
+     */
+    public static synchronized void onSample(long clientSent, long serverReceived, long serverSent, long clientReceived) {
+        long roundTrip = (clientReceived - clientSent) - (serverSent - serverReceived);
+        if (roundTrip < 0) return; // Clock stepped mid exchange, useless sample
+
+        if (roundTrip < bestRoundTrip) {
+            bestRoundTrip = roundTrip;
+            bestOffset = ((serverReceived - clientSent) + (serverSent - clientReceived)) / 2;
+        }
+    }
+
+    public static synchronized void reset() {
+        offsetMillis = 0;
+        roundTripMillis = -1;
+        synced = false;
+        pollIntervalMillis = MIN_POLL_MILLIS;
+        nextProbeMillis = 0;
+        probesSent = 0;
+        bestRoundTrip = Long.MAX_VALUE;
+        bestOffset = 0;
+    }
+
+    private static void finishBurst(long localNow) {
+        if (bestRoundTrip == Long.MAX_VALUE) {
+            // No replies, try again later
+            pollIntervalMillis = MIN_POLL_MILLIS;
+        } else if (!synced || Math.abs(bestOffset - offsetMillis) > STEP_THRESHOLD_MILLIS) {
+            if (synced) {
+                TimeSync.LOGGER.info("Clock drifted {} ms from the server, resyncing.", bestOffset - offsetMillis);
+            }
+
+            offsetMillis = bestOffset;
+            roundTripMillis = bestRoundTrip;
+            synced = true;
+            pollIntervalMillis = MIN_POLL_MILLIS;
+        } else {
+            // Still within the threshold, keep the current offset and back off
+            roundTripMillis = bestRoundTrip;
+            pollIntervalMillis = Math.min(pollIntervalMillis * 2, MAX_POLL_MILLIS);
+        }
+
+        nextProbeMillis = localNow + pollIntervalMillis;
+        probesSent = 0;
+        bestRoundTrip = Long.MAX_VALUE;
+        bestOffset = 0;
+    }
+}
@@ -0,0 +1,51 @@
+package com.chaoticloom.timesync;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * JSON config files in the Fabric config directory.
+ */
+public final class ConfigFile {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private ConfigFile() {}
+
+    /**
+     * Reads the file, writing the defaults first if it doesn't exist. Returns the defaults if the file can't be read.
+     */
+    public static <T> T load(String fileName, Class<T> type, Supplier<T> defaults) {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(fileName);
+
+        try {
+            if (Files.exists(path)) {
+                try (Reader reader = Files.newBufferedReader(path)) {
+                    T config = GSON.fromJson(reader, type);
+                    if (config != null) return config;
+                }
+            } else {
+                T config = defaults.get();
+                Files.createDirectories(path.getParent());
+                try (Writer writer = Files.newBufferedWriter(path)) {
+                    GSON.toJson(config, writer);
+                }
+                return config;
+            }
+        } catch (IOException | JsonParseException e) {
+            LOGGER.error("Failed to read " + fileName + ", using the defaults.", e);
+        }
+
+        return defaults.get();
+    }
+}
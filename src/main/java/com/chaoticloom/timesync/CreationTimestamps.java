@@ -0,0 +1,129 @@
+package com.chaoticloom.timesync;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.Util;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * Registry of world creation timestamps, one per dimension and per logical side.
+ *
+ * The server side is filled from each dimension's TimeSync.txt on a background thread as soon as the level loads,
+ * and the server waits for those reads before the first tick. The client side is filled by the sync packet.
+ * Reads are plain ConcurrentHashMap lookups, so the tick path never locks and never touches disk.
+ */
+public final class CreationTimestamps {
+    private static final String FILE_NAME = "TimeSync.txt";
+
+    /**
+     * Creation timestamp of a dimension, with its local calendar day already resolved for {@link SolarClock}.
+     */
+    public record Stamp(long millis, long epochDay) {
+        public static Stamp of(long millis) {
+            return new Stamp(millis, SolarClock.epochDayOf(millis));
+        }
+    }
+
+    private static final Map<ResourceKey<Level>, Stamp> SERVER = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, Stamp> CLIENT = new ConcurrentHashMap<>();
+    private static final Map<ResourceKey<Level>, CompletableFuture<Void>> PENDING = new ConcurrentHashMap<>();
+
+    private CreationTimestamps() {}
+
+    public static void init() {
+        ServerWorldEvents.LOAD.register((server, level) -> preload(level));
+
+        // Levels load before the server starts ticking, so this is the last chance to finish the reads off the tick path.
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            CompletableFuture.allOf(PENDING.values().toArray(new CompletableFuture[0])).join();
+        });
+
+        ServerWorldEvents.UNLOAD.register((server, level) -> {
+            SERVER.remove(level.dimension());
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            SERVER.clear();
+            PENDING.clear();
+        });
+    }
+
+    /**
+     * Returns the stamp of the level's dimension on its own logical side, or null if it is not known yet.
+     */
+    @Nullable
+    public static Stamp get(Level level) {
+        return (level.isClientSide() ? CLIENT : SERVER).get(level.dimension());
+    }
+
+    @Nullable
+    public static Stamp getServer(ResourceKey<Level> dimension) {
+        return SERVER.get(dimension);
+    }
+
+    public static Map<ResourceKey<Level>, Stamp> getServerStamps() {
+        return SERVER;
+    }
+
+    public static void putClient(ResourceKey<Level> dimension, long millis) {
+        CLIENT.put(dimension, Stamp.of(millis));
+    }
+
+    public static void clearClient() {
+        CLIENT.clear();
+    }
+
+    /**
+     * Starts reading the dimension's TimeSync.txt on the IO pool.
+     */
+    private static void preload(ServerLevel level) {
+        ResourceKey<Level> dimension = level.dimension();
+        Path file = getFilePath(level);
+
+        CompletableFuture<Void> task = CompletableFuture.runAsync(() -> {
+            long millis = readOrCreate(file);
+            if (millis != -1) {
+                SERVER.put(dimension, Stamp.of(millis));
+            }
+        }, Util.ioPool()).whenComplete((ignored, e) -> PENDING.remove(dimension));
+
+        PENDING.put(dimension, task);
+    }
+
+    /**
+     * Return the stored timestamp, creating the file with the current time if it doesn't exist yet.
+     */
+    private static long readOrCreate(Path file) {
+        try {
+            if (Files.exists(file)) {
+                return Long.parseLong(Files.readString(file).trim());
+            }
+
+            long timestamp = System.currentTimeMillis();
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, Long.toString(timestamp));
+            return timestamp;
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.error("Error: ", e);
+            return -1; // indicate error
+        }
+    }
+
+    /** Returns per-world TimeSync file path */
+    private static Path getFilePath(ServerLevel level) {
+        return level.getServer().getWorldPath(LevelResource.ROOT).resolve(level.dimension().location().getPath()).resolve(FILE_NAME);
+    }
+}
@@ -0,0 +1,125 @@
+package com.chaoticloom.timesync;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.BeetrootBlock;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.TorchflowerCropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closed-form model of {@link CropBlock#randomTick}, so a skip of any length costs the same per crop.
+ *
+ * A block gets a random tick with probability randomTickSpeed / 4096 per game tick (one section, randomTickSpeed
+ * picks per tick), and each random tick grows the crop one age with probability 1 / ((int) (25 / speed) + 1), speed
+ * being {@link CropBlock#getGrowthSpeed} (farmland, water, neighbours). Beetroots and torchflowers skip a third of
+ * their random ticks. Thinning a Poisson process keeps it Poisson, so the number of growth events over the skip is
+ * Poisson with mean ticks * randomTickSpeed / 4096 * p, and only the count up to the remaining ages matters.
+ *
+ * The conditions (light, farmland) are taken as they are now and assumed constant over the whole skip.
+ */
+public final class CropGrowth {
+    private static final double BLOCKS_PER_SECTION = 4096.0;
+    private static final int MIN_LIGHT = 9; // Same raw brightness check as CropBlock.randomTick
+
+    private CropGrowth() {}
+
+    /**
+     * Pending block changes of one chunk, as parallel arrays. An entry whose updated state is null is a position
+     * that no longer holds a crop, to be dropped from the index.
+     *
+     * @param entries  Section index and packed position, see {@link ChunkSnapshot#cropEntry}.
+     * @param expected State seen in the snapshot, the change is only applied if the block still has it.
+     */
+    public record Diff(int[] entries, BlockState[] expected, BlockState[] updated) {
+        public int size() {
+            return entries.length;
+        }
+    }
+
+    /**
+     * Computes the new age of every crop in the snapshot. Safe to run on any thread, it only reads the snapshot and
+     * uses its own random source.
+     */
+    public static Diff compute(ChunkSnapshot snapshot, long ticksSkipped, int randomTickSpeed, long seed) {
+        RandomSource random = new XoroshiroRandomSource(seed);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        IntArrayList entries = new IntArrayList();
+        List<BlockState> expected = new ArrayList<>();
+        List<BlockState> updated = new ArrayList<>();
+
+        for (int i = 0; i < snapshot.cropCount(); i++) {
+            BlockState state = snapshot.getBlockState(snapshot.cropPos(i, pos));
+
+            // The index is only a hint, the block may have changed without the mod seeing it
+            if (!(state.getBlock() instanceof CropBlock crop)) {
+                entries.add(snapshot.cropEntry(i));
+                expected.add(state);
+                updated.add(null);
+                continue;
+            }
+
+            int age = ageAfter(snapshot, crop, state, pos, snapshot.cropBrightness(i), ticksSkipped, randomTickSpeed, random);
+            if (age != crop.getAge(state)) {
+                entries.add(snapshot.cropEntry(i));
+                expected.add(state);
+                updated.add(crop.getStateForAge(age));
+            }
+        }
+
+        return new Diff(entries.toIntArray(), expected.toArray(new BlockState[0]), updated.toArray(new BlockState[0]));
+    }
+
+    /**
+     * Returns the age the crop would have after the skip. Returns the current age if it can't grow here.
+     * @param brightness Raw brightness at the crop, as {@code Level.getRawBrightness(pos, 0)}.
+     */
+    public static int ageAfter(BlockGetter level, CropBlock crop, BlockState state, BlockPos pos, int brightness, long ticksSkipped, int randomTickSpeed, RandomSource random) {
+        int age = crop.getAge(state);
+        int remaining = crop.getMaxAge() - age;
+        if (remaining <= 0 || ticksSkipped <= 0 || randomTickSpeed <= 0) return age;
+        if (brightness < MIN_LIGHT) return age;
+
+        double mean = ticksSkipped * (randomTickSpeed / BLOCKS_PER_SECTION) * growthChance(level, crop, pos);
+        return age + samplePoisson(mean, remaining, random);
+    }
+
+    /**
+     * Chance that a single random tick grows the crop one age.
+     */
+    public static double growthChance(BlockGetter level, CropBlock crop, BlockPos pos) {
+        float speed = CropBlock.getGrowthSpeed(crop, level, pos);
+        double chance = 1.0 / ((int) (25.0F / speed) + 1);
+
+        // Both only call super.randomTick when random.nextInt(3) != 0
+        if (crop instanceof BeetrootBlock || crop instanceof TorchflowerCropBlock) chance *= 2.0 / 3.0;
+        return chance;
+    }
+
+    /**
+     * Samples min(Poisson(mean), cap) by walking the CDF, which takes at most cap steps.
+     */
+    public static int samplePoisson(double mean, int cap, RandomSource random) {
+        if (mean <= 0 || cap <= 0) return 0;
+
+        double probability = Math.exp(-mean);
+        if (probability == 0) return cap; // Mean far beyond any crop's ages
+
+        double u = random.nextDouble();
+        double cumulative = probability;
+        for (int k = 0; k < cap; k++) {
+            if (u < cumulative) return k;
+
+            probability *= mean / (k + 1);
+            cumulative += probability;
+        }
+        return cap;
+    }
+}
@@ -0,0 +1,117 @@
+package com.chaoticloom.timesync;
+
+/**
+ * Per-day summary of a forecast, built once when the forecast is created and queried in O(1).
+ *
+ * Day {@code d} covers the hourly indices {@code [24d, 24d + 24)}, so day 0 is the forecast's first local day.
+ * Everything lives in one int array, {@link #STRIDE} ints per day:
+ * representative code | hours | min severity | max severity | severity score per {@link WeatherState}
+ *
+ * The severity of an hour is the {@link WeatherCondition#weight()} of its code, and the representative code of a day
+ * is the code with the highest accumulated severity (lowest code on ties), as the tab list always did it.
+ */
+public final class DailyForecastIndex {
+    public static final int HOURS_PER_DAY = 24;
+
+    private static final int CODE = 0;
+    private static final int HOURS = 1;
+    private static final int MIN_SEVERITY = 2;
+    private static final int MAX_SEVERITY = 3;
+    private static final int STATE_SCORES = 4;
+    private static final int STRIDE = STATE_SCORES + WeatherState.values().length;
+
+    private static final DailyForecastIndex EMPTY = new DailyForecastIndex(new int[0]);
+
+    private final int[] summary;
+
+    private DailyForecastIndex(int[] summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * Builds the index for hourly codes starting at local midnight. A trailing partial day is kept.
+     */
+    static DailyForecastIndex of(byte[] codes) {
+        int days = (codes.length + HOURS_PER_DAY - 1) / HOURS_PER_DAY;
+        if (days == 0) return EMPTY;
+
+        int[] summary = new int[days * STRIDE];
+        // One slot per WMO code, plus one for unknown (-1). Reused for every day.
+        int[] scores = new int[WeatherCondition.MAX_CODE + 2];
+
+        for (int day = 0; day < days; day++) {
+            int base = day * STRIDE;
+            int start = day * HOURS_PER_DAY;
+            int end = Math.min(start + HOURS_PER_DAY, codes.length);
+
+            int min = Integer.MAX_VALUE;
+            int max = 0;
+            for (int index = start; index < end; index++) {
+                int code = codes[index];
+                WeatherCondition condition = WeatherCondition.of(code);
+                int weight = condition.weight();
+
+                scores[code + 1] += weight;
+                min = Math.min(min, weight);
+                max = Math.max(max, weight);
+                if (condition.state() != null) summary[base + STATE_SCORES + condition.state().ordinal()] += weight;
+            }
+
+            // Highest accumulated score wins
+            int best = 0; // Default to clear sky if error
+            int bestScore = 0;
+            for (int slot = 0; slot < scores.length; slot++) {
+                if (scores[slot] > bestScore) {
+                    bestScore = scores[slot];
+                    best = slot - 1;
+                }
+                scores[slot] = 0;
+            }
+
+            summary[base + CODE] = best;
+            summary[base + HOURS] = end - start;
+            summary[base + MIN_SEVERITY] = min;
+            summary[base + MAX_SEVERITY] = max;
+        }
+
+        return new DailyForecastIndex(summary);
+    }
+
+    public int days() {
+        return summary.length / STRIDE;
+    }
+
+    /**
+     * Returns the code that represents the day, 0 (clear) if the day is out of range.
+     */
+    public int representativeCode(int day) {
+        return get(day, CODE);
+    }
+
+    /**
+     * Returns how many hours of the day the forecast covers, 0 if the day is out of range.
+     */
+    public int hours(int day) {
+        return get(day, HOURS);
+    }
+
+    public int minSeverity(int day) {
+        return get(day, MIN_SEVERITY);
+    }
+
+    public int maxSeverity(int day) {
+        return get(day, MAX_SEVERITY);
+    }
+
+    /**
+     * Returns the accumulated severity of the hours of the day in the given state, unknown codes count for none.
+     */
+    public int score(int day, WeatherState state) {
+        return get(day, STATE_SCORES + state.ordinal());
+    }
+
+    private int get(int day, int field) {
+        if (day < 0 || day >= days()) return 0;
+        return summary[day * STRIDE + field];
+    }
+}
@@ -0,0 +1,242 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.TextStyle;
+import java.util.*;
+
+/**
+ * Renders the tab list header and footer. Used by the server for vanilla clients ({@link TabListManager}) and by
+ * modded clients themselves ({@link ClientTabList}).
+ *
+ * Not thread safe, every side keeps its own instance with its own caches.
+ */
+public class FooterRenderer {
+    private static final int MIN_SEPARATOR_WIDTH = 27;
+
+    /**
+     * The assembled footer and the length of its longest line.
+     */
+    record Footer(Component component, int lineWidth) {}
+
+    /**
+     * A piece of the footer that is only rebuilt when its key changes.
+     */
+    private static final class Segment {
+        private long key = Long.MIN_VALUE;
+        private Object source; // Compared by identity, e.g. the forecast the segment was built from
+        private Component component = Component.empty();
+        private int width; // What the segment adds to the separator width
+        private int lineWidth; // Longest line, formatting codes included like the separators
+
+        boolean isCurrent(long key, Object source) {
+            return this.key == key && this.source == source;
+        }
+
+        void set(long key, Object source, Component component, int width) {
+            this.key = key;
+            this.source = source;
+            this.component = component;
+            this.width = width;
+            this.lineWidth = component.getString().lines().mapToInt(String::length).max().orElse(0);
+        }
+    }
+
+    /**
+     * The cached segments of one language.
+     */
+    private static final class Segments {
+        // Shared by every location
+        final Segment date = new Segment();
+        final Segment season = new Segment();
+        final Segment age = new Segment();
+        // Per location
+        final Map<Integer, Segment> weather = new HashMap<>();
+        // By width, the footer width only changes when the content does
+        final Map<Integer, Component> headers = new HashMap<>();
+    }
+
+    // Tables are cached by Translations, so identity is enough
+    private final Map<Translations.Table, Segments> byLanguage = new IdentityHashMap<>();
+    private final Map<Integer, Component> separators = new HashMap<>();
+
+    private Segments segmentsFor(Translations.Table lang) {
+        return byLanguage.computeIfAbsent(lang, key -> new Segments());
+    }
+
+    /**
+     * Returns the header for a footer whose longest line is lineWidth characters.
+     */
+    Component buildHeader(Translations.Table lang, int lineWidth) {
+        return segmentsFor(lang).headers.computeIfAbsent(lineWidth,
+                width -> Component.literal("§6§l" + lang.get("timesync.tab.title") + "\n").append(getSeparator(width, false)));
+    }
+
+    /**
+     * Assembles the footer from cached segments: the date is rebuilt once per second, the season once per month,
+     * the weather block once per forecast hour (or when the forecast changes) and the world age once per day.
+     * Every language has its own set of segments.
+     */
+    Footer buildFooter(int location, Translations.Table lang, long totalTicks, long nowMillis, WeatherCache data) {
+        Segments segments = segmentsFor(lang);
+        Segment date = segments.date;
+        Segment season = segments.season;
+        Segment age = segments.age;
+
+        // --- 1. BASIC DATA ---
+        long second = Math.floorDiv(nowMillis, 1000L);
+        if (!date.isCurrent(second, null)) {
+            LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+            String dateString = now.format(lang.dateFormat());
+            date.set(second, null, Component.literal("§7" + dateString + "\n"), dateString.length());
+
+            int month = now.getMonthValue();
+            if (!season.isCurrent(month, null)) {
+                season.set(month, null, Component.literal("§b" + lang.get(getSeasonKey(month)) + "\n"), 0);
+            }
+        }
+
+        long totalWorldDays = totalTicks / 24000L;
+
+        // --- 2. WEATHER DATA CONSTRUCTION ---
+        // Day names come from the local date, which only changes on an hour boundary
+        long hour = Math.floorDiv(nowMillis, WeatherCache.HOUR_MILLIS);
+        Segment weather = segments.weather.computeIfAbsent(location, index -> new Segment());
+        if (!weather.isCurrent(hour, data)) {
+            buildWeather(weather, lang, hour, nowMillis, data);
+        }
+
+        // --- 3. WORLD AGE ---
+        if (!age.isCurrent(totalWorldDays, null)) {
+            long calcYears = totalWorldDays / 365;
+            long remainingDaysAfterYear = totalWorldDays % 365;
+            long calcMonths = remainingDaysAfterYear / 30;
+            long calcDays = remainingDaysAfterYear % 30;
+
+            MutableComponent ageLine = Component.literal("§7" + lang.get("timesync.tab.day") + " §e" + totalWorldDays + "   §7-   ");
+            ageLine.append(formatDuration(lang, calcYears, calcMonths, calcDays));
+            age.set(totalWorldDays, null, ageLine, ageLine.getString().length());
+        }
+
+        // --- 4. WIDTH CALCULATION ---
+        int maxLen = Math.max(age.width, date.width);
+        maxLen = Math.max(maxLen, weather.width);
+
+        int separatorWidth = Math.max(MIN_SEPARATOR_WIDTH, maxLen + 2);
+        Component separator = separators.computeIfAbsent(separatorWidth, width -> getSeparator(width, true));
+
+        // --- 5. ASSEMBLE FOOTER ---
+        MutableComponent footer = Component.empty();
+
+        footer.append(separator);
+        footer.append(date.component);
+        footer.append(season.component);
+        footer.append(weather.component);
+        footer.append(separator);
+        footer.append(age.component);
+
+        // The separator line is "§f" + dashes
+        int lineWidth = Math.max(separatorWidth + 2, Math.max(date.lineWidth, season.lineWidth));
+        lineWidth = Math.max(lineWidth, Math.max(weather.lineWidth, age.lineWidth));
+
+        return new Footer(footer, lineWidth);
+    }
+
+    private static void buildWeather(Segment segment, Translations.Table lang, long hour, long nowMillis, WeatherCache data) {
+        MutableComponent block = Component.empty();
+
+        if (data == null) {
+            block.append(Component.literal("\n§8" + lang.get("timesync.tab.searching") + "\n"));
+            // Never shown, but it keeps the footer as wide as it will be once the forecast arrives
+            segment.set(hour, null, block, ("§8" + lang.get("timesync.tab.syncing")).length());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+
+        // A. Current Header
+        WeatherCondition current = WeatherCondition.of(data.codeFor(nowMillis));
+        String weatherLineCurrent = "§7" + lang.get("timesync.tab.current") + " " + current.icon() + " " + lang.get(current.nameKey());
+
+        // B. Hourly Strip (The 2-Row Timeline)
+        StringBuilder timelineHours = new StringBuilder();
+        StringBuilder timelineIcons = new StringBuilder();
+
+        // Index 0 is local midnight of the forecast's first day
+        long currentHour = data.indexOf(nowMillis);
+
+        // Loop 0 to 23 with a step of 1 to fit tablist width
+        for (int h = 0; h < 24 && h < data.size(); h++) {
+            int code = data.codeAtIndex(h);
+
+            // Highlight the column closest to current time in Gold
+            String color = (h == currentHour) ? "§6" : "§7";
+
+            // Top Row: Numbers (e.g. "09")
+            timelineHours.append(color).append(h < 10 ? "0" : "").append(h).append(' ');
+
+            // Bottom Row: Icons (e.g. "☁")
+            timelineIcons.append(WeatherCondition.of(code).icon()).append("  ");
+        }
+
+        // C. Forecast (Next 3 Days - Weighted)
+        StringBuilder weatherForecast = new StringBuilder("§8" + lang.get("timesync.tab.forecast") + " §f");
+        for (int dayOffset = 1; dayOffset <= 3; dayOffset++) {
+            int representativeCode = data.daily().representativeCode(dayOffset);
+
+            String dayName = now.plusDays(dayOffset).getDayOfWeek().getDisplayName(TextStyle.SHORT, lang.locale());
+            dayName = dayName.substring(0, 1).toUpperCase() + dayName.substring(1);
+
+            weatherForecast.append(dayName).append(' ').append(WeatherCondition.of(representativeCode).icon()).append("  ");
+        }
+
+        // Current Weather, the Timeline Strip and the Future Forecast
+        block.append(Component.literal("\n" + weatherLineCurrent + "\n\n"
+                + timelineHours + "\n"
+                + timelineIcons + "\n\n"
+                + weatherForecast + "\n"));
+
+        int width = Math.max(weatherLineCurrent.length(), Math.max(timelineHours.length(), weatherForecast.length()));
+        segment.set(hour, data, block, width);
+    }
+
+    // --- HELPER METHODS ---
+
+    private static Component getSeparator(int targetWidth, boolean newLine) {
+        int finalWidth = Math.max(MIN_SEPARATOR_WIDTH, targetWidth);
+        String dashes = String.join("", Collections.nCopies(finalWidth, "-"));
+        String text = "§f" + dashes;
+        if (newLine) text += "\n";
+        return Component.literal(text);
+    }
+
+    private static String getSeasonKey(int month) {
+        return switch (month) {
+            case 12, 1, 2 -> "timesync.season.winter";
+            case 3, 4, 5 -> "timesync.season.spring";
+            case 6, 7, 8 -> "timesync.season.summer";
+            default -> "timesync.season.autumn";
+        };
+    }
+
+    private static Component formatDuration(Translations.Table lang, long years, long months, long days) {
+        StringBuilder sb = new StringBuilder("§e");
+        boolean hasYears = years > 0;
+        boolean hasMonths = months > 0;
+
+        if (hasYears) sb.append(years).append(' ').append(lang.get(years == 1 ? "timesync.duration.year" : "timesync.duration.years"));
+        if (hasMonths) {
+            if (hasYears) sb.append(", ");
+            sb.append(months).append(' ').append(lang.get(months == 1 ? "timesync.duration.month" : "timesync.duration.months"));
+        }
+        if (days > 0 || (!hasYears && !hasMonths)) {
+            if (hasYears || hasMonths) sb.append(' ').append(lang.get("timesync.duration.and")).append(' ');
+            sb.append(days).append(' ').append(lang.get(days == 1 ? "timesync.duration.day" : "timesync.duration.days"));
+        }
+        return Component.literal(sb.toString());
+    }
+}
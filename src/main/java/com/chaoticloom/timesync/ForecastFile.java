@@ -0,0 +1,91 @@
+package com.chaoticloom.timesync;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary on-disk copy of the last forecast, used as fallback when the API is down.
+ *
+ * Layout (big endian):
+ * magic (int) | version (short) | lastUpdateTimestamp (long) | baseHour (long) | currentCode (byte) | count (int) | codes (count bytes) | crc32 (int)
+ *
+ * Writes go to a temp file that is then moved over the old one, so a crash mid-write leaves either the old file or
+ * the new one, never half of each. A file that fails the checks is ignored.
+ */
+public final class ForecastFile {
+    private static final int MAGIC = 0x54535743; // "TSWC"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 1 + 4;
+    private static final int CHECKSUM_SIZE = 4;
+
+    private ForecastFile() {}
+
+    public static void write(Path path, WeatherCache data) throws IOException {
+        byte[] codes = data.codes();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + codes.length + CHECKSUM_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(data.lastUpdateTimestamp);
+        buffer.putLong(data.baseHour);
+        buffer.put((byte) data.currentCode);
+        buffer.putInt(codes.length);
+        buffer.put(codes);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the stored forecast, or null if the file is missing, from another version or corrupted.
+     */
+    public static WeatherCache read(Path path) throws IOException {
+        if (!Files.exists(path)) return null;
+
+        // About a hundred bytes, a plain read is as fast as mapping and doesn't keep the file locked on Windows
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < HEADER_SIZE + CHECKSUM_SIZE) return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) return null;
+
+        long lastUpdateTimestamp = buffer.getLong();
+        long baseHour = buffer.getLong();
+        int currentCode = buffer.get();
+        int count = buffer.getInt();
+        if (count <= 0 || HEADER_SIZE + (long) count + CHECKSUM_SIZE != bytes.length) return null;
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, HEADER_SIZE + count);
+
+        byte[] codes = new byte[count];
+        buffer.get(codes);
+        if (buffer.getInt() != (int) crc.getValue()) return null;
+
+        return new WeatherCache(lastUpdateTimestamp, currentCode, baseHour, codes);
+    }
+}
@@ -0,0 +1,112 @@
+package com.chaoticloom.timesync;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams an open-meteo response (requested with timeformat=unixtime) straight into a {@link WeatherCache}.
+ * Nothing but the hourly codes is kept, and they go into a byte array without boxing.
+ */
+public final class ForecastParser {
+    private ForecastParser() {}
+
+    /**
+     * Parses a response for one or more coordinates, in request order.
+     * open-meteo answers a single location with an object and several with an array of objects.
+     * Entries without hourly data are null.
+     */
+    public static List<WeatherCache> parse(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        List<WeatherCache> forecasts = new ArrayList<>();
+
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                forecasts.add(parseLocation(reader));
+            }
+            reader.endArray();
+        } else {
+            forecasts.add(parseLocation(reader));
+        }
+
+        return forecasts;
+    }
+
+    /**
+     * Returns the parsed forecast of one location, or null if it has no hourly data.
+     */
+    private static WeatherCache parseLocation(JsonReader reader) throws IOException {
+        long currentTime = -1;
+        int currentCode = -1;
+        long firstHourTime = -1;
+        byte[] codes = new byte[128];
+        int count = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "current" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "time" -> currentTime = reader.nextLong();
+                            case "weather_code" -> currentCode = readCode(reader);
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                case "hourly" -> {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "time" -> {
+                                // Hourly steps, so only the first timestamp matters
+                                reader.beginArray();
+                                if (reader.hasNext()) firstHourTime = reader.nextLong();
+                                while (reader.hasNext()) reader.skipValue();
+                                reader.endArray();
+                            }
+                            case "weather_code" -> {
+                                reader.beginArray();
+                                while (reader.hasNext()) {
+                                    if (count == codes.length) codes = Arrays.copyOf(codes, count * 2);
+                                    codes[count++] = (byte) readCode(reader);
+                                }
+                                reader.endArray();
+                            }
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (firstHourTime < 0 || count == 0) return null;
+
+        long lastUpdate = currentTime >= 0 ? currentTime * 1000L : System.currentTimeMillis();
+        return new WeatherCache(lastUpdate, currentCode, Math.floorDiv(firstHourTime, 3600L), Arrays.copyOf(codes, count));
+    }
+
+    /**
+     * Reads a WMO code, -1 for null or anything that doesn't fit the 0-99 table.
+     */
+    private static int readCode(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return -1;
+        }
+
+        int code = reader.nextInt();
+        return code >= 0 && code <= WeatherCondition.MAX_CODE ? code : -1;
+    }
+}
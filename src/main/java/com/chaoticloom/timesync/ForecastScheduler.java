@@ -0,0 +1,109 @@
+package com.chaoticloom.timesync;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Decides when the forecast gets downloaded again.
+ *
+ * open-meteo only changes the hourly data once per hour, so after a successful fetch the next one is due shortly
+ * after the top of the next hour. Failures retry with exponential backoff plus jitter, and only one request can be
+ * in flight at a time no matter how many callers ask for a refresh.
+ */
+public final class ForecastScheduler {
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final long SETTLE_MILLIS = 2 * 60_000L; // Give the API a moment to publish the new hour
+    private static final long MAX_SETTLE_JITTER_MILLIS = 60_000L;
+    private static final long BASE_BACKOFF_MILLIS = 30_000L;
+    private static final long MAX_BACKOFF_MILLIS = 30 * 60_000L;
+
+    private static final AtomicReference<CompletableFuture<List<WeatherCache>>> IN_FLIGHT = new AtomicReference<>();
+    private static volatile long nextRefreshMillis = 0;
+    private static int failures = 0;
+    private static int generation = 0; // Bumped by reset, results of older requests are ignored
+
+    private ForecastScheduler() {}
+
+    public static boolean isDue(long nowMillis) {
+        return nowMillis >= nextRefreshMillis;
+    }
+
+    public static long getNextRefreshMillis() {
+        return nextRefreshMillis;
+    }
+
+    /**
+     * Forgets the schedule, for the next server (singleplayer world) to start fresh. A request still in flight
+     * completes for its callers but no longer blocks new ones or touches the schedule.
+     */
+    public static synchronized void reset() {
+        generation++;
+        failures = 0;
+        nextRefreshMillis = 0;
+        IN_FLIGHT.set(null);
+    }
+
+    /**
+     * Starts a fetch unless one is already running.
+     * @return The new request, or null if another caller's request is still in flight.
+     */
+    public static CompletableFuture<List<WeatherCache>> tryStart(Supplier<CompletableFuture<List<WeatherCache>>> fetch) {
+        CompletableFuture<List<WeatherCache>> request = new CompletableFuture<>();
+        if (!IN_FLIGHT.compareAndSet(null, request)) {
+            return null;
+        }
+        int startedIn = currentGeneration();
+
+        CompletableFuture<List<WeatherCache>> future;
+        try {
+            future = fetch.get();
+        } catch (RuntimeException e) {
+            // Failed before a request was even sent, still has to release the slot and back off
+            TimeSync.LOGGER.error("Failed to start weather fetch", e);
+            onFailure(System.currentTimeMillis(), startedIn);
+            IN_FLIGHT.compareAndSet(request, null);
+            request.completeExceptionally(e);
+            return request;
+        }
+
+        future.whenComplete((data, e) -> {
+            long now = System.currentTimeMillis();
+            if (data != null) {
+                onSuccess(now, startedIn);
+            } else {
+                onFailure(now, startedIn);
+            }
+
+            IN_FLIGHT.compareAndSet(request, null);
+            request.complete(data);
+        });
+
+        return request;
+    }
+
+    private static synchronized int currentGeneration() {
+        return generation;
+    }
+
+    private static synchronized void onSuccess(long nowMillis, int startedIn) {
+        if (startedIn != generation) return;
+        failures = 0;
+
+        long nextHour = (nowMillis / HOUR_MILLIS + 1) * HOUR_MILLIS;
+        nextRefreshMillis = nextHour + SETTLE_MILLIS + ThreadLocalRandom.current().nextLong(MAX_SETTLE_JITTER_MILLIS);
+    }
+
+    private static synchronized void onFailure(long nowMillis, int startedIn) {
+        if (startedIn != generation) return;
+        failures++;
+
+        // Exponential backoff, half fixed and half random so restarts don't retry in lockstep
+        long backoff = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(failures - 1, 16));
+        nextRefreshMillis = nowMillis + backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+
+        TimeSync.LOGGER.warn("Weather fetch failed {} time(s) in a row, retrying in {} s.", failures, (nextRefreshMillis - nowMillis) / 1000);
+    }
+}
@@ -0,0 +1,86 @@
+package com.chaoticloom.timesync;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends modded clients what they need to render the tab list on their own, over {@link TimeSync#FORECAST_PACKET_ID}.
+ *
+ * A player only gets a message when the forecast of their location is a different one from the last they got:
+ * on join, after a refresh, or when moving to a dimension that follows another location. Everything else in the
+ * footer (clock, season, world age, the current hour) is derived on the client.
+ */
+public final class ForecastSync {
+    private static final int MAX_HOURS = 1024; // A few days of hourly codes, anything longer is a broken packet
+
+    /**
+     * @param creation Creation timestamp of the overworld, the world age in the footer counts from it. Null if unknown.
+     * @param forecast Null while the server has no forecast for the player's location.
+     */
+    public record Payload(@Nullable CreationTimestamps.Stamp creation, @Nullable WeatherCache forecast) {
+        public static Payload read(FriendlyByteBuf buf) {
+            long creationMillis = buf.readLong();
+            CreationTimestamps.Stamp creation = creationMillis >= 0 ? CreationTimestamps.Stamp.of(creationMillis) : null;
+            if (!buf.readBoolean()) return new Payload(creation, null);
+
+            long lastUpdateTimestamp = buf.readLong();
+            int currentCode = buf.readByte();
+            long baseHour = buf.readLong();
+            byte[] codes = buf.readByteArray(MAX_HOURS);
+            return new Payload(creation, new WeatherCache(lastUpdateTimestamp, currentCode, baseHour, codes));
+        }
+    }
+
+    // Sent in place of a null forecast, so "nothing yet" is also only sent once
+    private static final Object NO_FORECAST = new Object();
+
+    // Last forecast sent per player (by identity), only touched on the server thread
+    private static final Map<UUID, Object> SENT = new HashMap<>();
+
+    private ForecastSync() {}
+
+    public static void init() {
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> SENT.remove(handler.getPlayer().getUUID()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> SENT.clear());
+    }
+
+    /**
+     * Called for every player once per tab list update.
+     * @return False for vanilla clients, which still need the server-rendered tab list.
+     */
+    public static boolean sync(ServerPlayer player) {
+        if (!ServerPlayNetworking.canSend(player, TimeSync.FORECAST_PACKET_ID)) return false;
+
+        WeatherCache forecast = WeatherService.getCache(player.serverLevel());
+        Object marker = forecast != null ? forecast : NO_FORECAST;
+        if (SENT.put(player.getUUID(), marker) == marker) return true;
+
+        FriendlyByteBuf buf = PacketByteBufs.create();
+        write(buf, forecast);
+        ServerPlayNetworking.send(player, TimeSync.FORECAST_PACKET_ID, buf);
+        return true;
+    }
+
+    private static void write(FriendlyByteBuf buf, @Nullable WeatherCache forecast) {
+        CreationTimestamps.Stamp creation = CreationTimestamps.getServer(Level.OVERWORLD);
+        buf.writeLong(creation != null ? creation.millis() : -1);
+
+        buf.writeBoolean(forecast != null);
+        if (forecast == null) return;
+
+        buf.writeLong(forecast.lastUpdateTimestamp);
+        buf.writeByte(forecast.currentCode);
+        buf.writeLong(forecast.baseHour);
+        buf.writeByteArray(forecast.codes());
+    }
+}
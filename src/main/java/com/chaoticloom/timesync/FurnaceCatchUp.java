@@ -0,0 +1,90 @@
+package com.chaoticloom.timesync;
+
+import com.chaoticloom.timesync.mixin.AbstractFurnaceBlockEntityAccessor;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+
+/**
+ * Fast-forwards a furnace over a skip without ticking it once per skipped tick.
+ *
+ * Between two events (an item finishing, the fuel running out) a furnace only counts: litTime goes down by one and
+ * cookingProgress up by one each tick while it can smelt, and cookingProgress cools down by two while it is out.
+ * Those stretches are applied in one step, and only the tick of each event goes through
+ * {@link AbstractFurnaceBlockEntity#serverTick}, so fuel remainders (lava buckets), the wet sponge, recipe
+ * experience and the LIT block state all behave exactly as in vanilla. The cost is one vanilla tick per smelted
+ * item or burned fuel, bounded by the stack sizes, no matter how long the skip was.
+ *
+ * Hoppers around the furnace are not simulated, same as before.
+ */
+public final class FurnaceCatchUp {
+    private FurnaceCatchUp() {}
+
+    public static void advance(ServerLevel level, AbstractFurnaceBlockEntity furnace, long ticks) {
+        AbstractFurnaceBlockEntityAccessor accessor = (AbstractFurnaceBlockEntityAccessor) furnace;
+
+        while (ticks > 0) {
+            int litTime = accessor.getLitTime();
+
+            if (litTime <= 0) {
+                // Out: the next tick either lights it or tells us it stays out
+                tick(level, furnace);
+                ticks--;
+
+                if (accessor.getLitTime() <= 0) {
+                    // Nothing will change any more, only the progress cools down
+                    long progress = Math.max(0, accessor.getCookingProgress() - 2 * ticks);
+                    accessor.setCookingProgress((int) progress);
+                    break;
+                }
+                continue;
+            }
+
+            // Quiet ticks: the furnace stays lit afterwards and nothing finishes
+            long quiet;
+            int total = accessor.getCookingTotalTime();
+            if (total > 0 && canBurn(level, furnace, accessor)) {
+                int progress = accessor.getCookingProgress();
+                if (progress >= total) {
+                    // Saved past the cook time (the recipe changed): vanilla would never finish the item and tick by
+                    // tick we'd be back to one serverTick per skipped tick, so let the next tick finish it instead
+                    progress = total - 1;
+                    accessor.setCookingProgress(progress);
+                }
+                quiet = Math.min(Math.min(litTime - 1, total - 1 - progress), ticks);
+                if (quiet > 0) {
+                    accessor.setCookingProgress(progress + (int) quiet);
+                }
+            } else {
+                quiet = Math.min(litTime - 1, ticks);
+                if (quiet > 0) {
+                    accessor.setCookingProgress(0);
+                }
+            }
+
+            if (quiet > 0) {
+                accessor.setLitTime(litTime - (int) quiet);
+                ticks -= quiet;
+            }
+
+            // The tick with the event itself
+            if (ticks > 0) {
+                tick(level, furnace);
+                ticks--;
+            }
+        }
+
+        furnace.setChanged();
+    }
+
+    private static boolean canBurn(ServerLevel level, AbstractFurnaceBlockEntity furnace, AbstractFurnaceBlockEntityAccessor accessor) {
+        if (accessor.getItems().get(0).isEmpty()) return false;
+
+        Recipe<?> recipe = accessor.getQuickCheck().getRecipeFor(furnace, level).orElse(null);
+        return AbstractFurnaceBlockEntityAccessor.callCanBurn(level.registryAccess(), recipe, accessor.getItems(), furnace.getMaxStackSize());
+    }
+
+    private static void tick(ServerLevel level, AbstractFurnaceBlockEntity furnace) {
+        AbstractFurnaceBlockEntity.serverTick(level, furnace.getBlockPos(), furnace.getBlockState(), furnace);
+    }
+}
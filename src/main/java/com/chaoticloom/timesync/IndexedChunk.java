@@ -0,0 +1,14 @@
+package com.chaoticloom.timesync;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Implemented on ChunkAccess by {@link com.chaoticloom.timesync.mixin.ChunkAccessMixin}.
+ * Null until the chunk's index is loaded or built, see {@link TimeSensitiveIndex#of}.
+ */
+public interface IndexedChunk {
+    @Nullable
+    TimeSensitiveIndex timesync$getIndex();
+
+    void timesync$setIndex(@Nullable TimeSensitiveIndex index);
+}
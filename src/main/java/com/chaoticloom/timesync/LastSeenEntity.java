@@ -0,0 +1,13 @@
+package com.chaoticloom.timesync;
+
+/**
+ * Implemented on Entity by {@link com.chaoticloom.timesync.mixin.EntityMixin}.
+ * When the entity was last simulated (epoch millis), as read from its saved data. 0 if it wasn't saved with one.
+ */
+public interface LastSeenEntity {
+    String TAG = TimeSync.MOD_ID + ":last_seen";
+
+    long timesync$getLastSeen();
+
+    void timesync$setLastSeen(long lastSeen);
+}
@@ -0,0 +1,64 @@
+package com.chaoticloom.timesync;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+//https://open-meteo.com/en/docs?latitude=37.3279072&longitude=-5.9400771&timezone=Europe%2FLondon&hourly=weather_code
+/**
+ * Live forecasts from open-meteo, every location in one request.
+ */
+public class OpenMeteoProvider implements WeatherProvider {
+    // Today's strip + the next 3 days in the tab list, no need to download 16 days
+    private static final int FORECAST_DAYS = 4;
+    private static final String API_URL = "https://api.open-meteo.com/v1/forecast";
+    private static final String API_PARAMS = "&current=weather_code&hourly=weather_code&timeformat=unixtime&timezone=auto&forecast_days=" + FORECAST_DAYS;
+
+    // One pooled client for the whole session instead of a new one per refresh
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @Override
+    public CompletableFuture<List<WeatherCache>> fetch(List<WeatherLocation> locations) {
+        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(buildUrl(locations))).timeout(Duration.ofSeconds(20)).GET().build();
+
+        return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    try (Reader reader = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                        if (response.statusCode() != 200) return null;
+
+                        return WeatherService.parse(reader);
+                    } catch (IOException e) {
+                        LOGGER.error("Failed to read weather response", e);
+                        return null;
+                    }
+                })
+                .exceptionally(e -> {
+                    LOGGER.error("Failed to fetch weather", e);
+                    return null;
+                });
+    }
+
+    /**
+     * open-meteo takes comma separated coordinate lists and answers them in the same order.
+     */
+    private static String buildUrl(List<WeatherLocation> locations) {
+        StringJoiner latitudes = new StringJoiner(",");
+        StringJoiner longitudes = new StringJoiner(",");
+        for (WeatherLocation location : locations) {
+            latitudes.add(Double.toString(location.latitude()));
+            longitudes.add(Double.toString(location.longitude()));
+        }
+        return API_URL + "?latitude=" + latitudes + "&longitude=" + longitudes + API_PARAMS;
+    }
+}
@@ -0,0 +1,72 @@
+package com.chaoticloom.timesync;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import net.minecraft.network.ConnectionProtocol;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.PacketFlow;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Collection;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * Sends the same play packet to many players while serializing it only once.
+ *
+ * The packet is written to a buffer as [varint id][body], exactly what the "encoder" handler would produce, and each
+ * connection gets a retained duplicate. A ByteBuf is not a Packet, so the encoder lets it through and compression,
+ * the length prefix and encryption still run per connection.
+ *
+ * Connections without an encoder (the integrated server's local channel passes packet objects around) use the
+ * regular send path.
+ */
+public final class PacketBroadcaster {
+    private PacketBroadcaster() {}
+
+    public static void broadcast(Packet<?> packet, Collection<ServerPlayer> players) {
+        if (players.isEmpty()) return;
+
+        ByteBuf encoded = encode(packet);
+        if (encoded == null) {
+            for (ServerPlayer player : players) {
+                player.connection.send(packet);
+            }
+            return;
+        }
+
+        try {
+            for (ServerPlayer player : players) {
+                Channel channel = player.connection.connection.channel;
+                if (channel != null && channel.pipeline().get("encoder") != null) {
+                    channel.writeAndFlush(encoded.retainedDuplicate());
+                } else {
+                    player.connection.send(packet);
+                }
+            }
+        } finally {
+            encoded.release();
+        }
+    }
+
+    /**
+     * Returns the wire form of the packet without the length prefix, or null if it can't be encoded.
+     */
+    private static ByteBuf encode(Packet<?> packet) {
+        int id = ConnectionProtocol.PLAY.getPacketId(PacketFlow.CLIENTBOUND, packet);
+        if (id == -1) return null;
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            buf.writeVarInt(id);
+            packet.write(buf);
+            return buf;
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to encode {} for broadcast, sending it per player.", packet.getClass().getSimpleName(), e);
+            buf.release();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.chaoticloom.timesync;
+
+/**
+ * Implemented on ServerPlayer by {@link com.chaoticloom.timesync.mixin.ServerPlayerMixin}.
+ * The client language, as sent in the client information packet.
+ */
+public interface PlayerLanguage {
+    String timesync$getLanguage();
+}
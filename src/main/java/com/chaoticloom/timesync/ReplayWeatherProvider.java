@@ -0,0 +1,92 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.Util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * Offline stand-in for {@link OpenMeteoProvider} that replays recorded open-meteo responses from a directory.
+ *
+ * Each location reads {@code <name>.json}, or {@code default.json} if there is no file for it. Every fetch waits
+ * {@code latencyMillis} and fails with probability {@code failureRate}, drawn from a seeded random so runs repeat.
+ * With {@code shiftToToday} the recorded forecast is moved by whole days so it covers the current hour, which keeps
+ * old recordings usable for soak tests.
+ */
+public class ReplayWeatherProvider implements WeatherProvider {
+    private static final String FALLBACK_FILE = "default.json";
+
+    private final Path directory;
+    private final long latencyMillis;
+    private final double failureRate;
+    private final boolean shiftToToday;
+    private final Random random;
+
+    public ReplayWeatherProvider(Path directory, long latencyMillis, double failureRate, boolean shiftToToday, long seed) {
+        this.directory = directory;
+        this.latencyMillis = Math.max(0, latencyMillis);
+        this.failureRate = failureRate;
+        this.shiftToToday = shiftToToday;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public CompletableFuture<List<WeatherCache>> fetch(List<WeatherLocation> locations) {
+        boolean fail;
+        synchronized (random) {
+            fail = random.nextDouble() < failureRate;
+        }
+
+        // The file reads never run on the caller, which is the server thread
+        Executor executor = latencyMillis > 0 ? CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS, Util.ioPool()) : Util.ioPool();
+        return CompletableFuture.supplyAsync(() -> fail ? null : replay(locations), executor);
+    }
+
+    private List<WeatherCache> replay(List<WeatherLocation> locations) {
+        long nowMillis = System.currentTimeMillis();
+        List<WeatherCache> result = new ArrayList<>(locations.size());
+
+        for (WeatherLocation location : locations) {
+            WeatherCache data = read(location);
+            result.add(data != null && shiftToToday ? shiftToToday(data, nowMillis) : data);
+        }
+        return result;
+    }
+
+    private WeatherCache read(WeatherLocation location) {
+        Path path = directory.resolve(location.name() + ".json");
+        if (!Files.exists(path)) path = directory.resolve(FALLBACK_FILE);
+        if (!Files.exists(path)) return null;
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<WeatherCache> data = WeatherService.parse(reader);
+            return data != null && !data.isEmpty() ? data.get(0) : null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to replay " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Moves the forecast by whole days so its first day is the current one, keeping the hour of day intact.
+     */
+    private static WeatherCache shiftToToday(WeatherCache data, long nowMillis) {
+        long days = Math.floorDiv(data.indexOf(nowMillis), 24);
+        if (days == 0) return data;
+
+        long shiftHours = days * 24;
+        return new WeatherCache(data.lastUpdateTimestamp + shiftHours * WeatherCache.HOUR_MILLIS, data.currentCode,
+                data.baseHour + shiftHours, data.codes());
+    }
+}
@@ -0,0 +1,95 @@
+package com.chaoticloom.timesync;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+
+/**
+ * Clock engine behind {@link TimeSync#getSyncedTime}.
+ *
+ * The 6:00 AM anchor of the current solar day is resolved once, together with the instant where it stops
+ * being valid (the next 6:00 AM or the next DST transition of the zone, whichever comes first).
+ * Between those points every call is plain long arithmetic, no java.time objects are created.
+ */
+public final class SolarClock {
+    public static final long MILLIS_PER_TICK = 3600L; // 3600 ms = 1 tick
+    public static final long TICKS_PER_DAY = 24000L;
+    private static final int ANCHOR_HOUR = 6;
+
+    /**
+     * A resolved solar day. Immutable so the server and client threads can share it through a volatile read.
+     */
+    private record Window(long anchorMillis, long validFromMillis, long validUntilMillis, long solarEpochDay) {}
+
+    /**
+     * Single entry memo for {@link #epochDayOf(long)}, the creation timestamp barely ever changes.
+     */
+    private record Day(long millis, long epochDay) {}
+
+    private static volatile Window window = null;
+    private static volatile Day lastDay = null;
+
+    private SolarClock() {}
+
+    /**
+     * Calculates the total Minecraft time (ticks) for a world created at the given calendar day.
+     * 1. Full solar days passed since the creation day (for the day counter).
+     * 2. Time passed since 6:00 AM of the current solar day (for the time of day).
+     */
+    public static long getTicks(long creationEpochDay, long nowMillis) {
+        Window current = window;
+        if (current == null || nowMillis < current.validFromMillis || nowMillis >= current.validUntilMillis) {
+            current = resolve(nowMillis);
+            window = current;
+        }
+
+        long elapsedSinceAnchor = nowMillis - current.anchorMillis;
+        if (elapsedSinceAnchor < 0) elapsedSinceAnchor = 0;
+
+        long daysPassed = current.solarEpochDay - creationEpochDay;
+        if (daysPassed < 0) daysPassed = 0;
+
+        return (daysPassed * TICKS_PER_DAY) + (elapsedSinceAnchor / MILLIS_PER_TICK);
+    }
+
+    /**
+     * Returns the local calendar day (epoch day) of the given timestamp.
+     * Memoized, so calling it every tick with the same creation timestamp is free.
+     */
+    public static long epochDayOf(long millis) {
+        Day day = lastDay;
+        if (day == null || day.millis != millis) {
+            day = new Day(millis, Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay());
+            lastDay = day;
+        }
+        return day.epochDay;
+    }
+
+    /**
+     * Resolves the solar day containing nowMillis. This is the only place that allocates.
+     */
+    private static Window resolve(long nowMillis) {
+        ZoneId zone = ZoneId.systemDefault();
+        Instant now = Instant.ofEpochMilli(nowMillis);
+        ZonedDateTime nowTime = now.atZone(zone);
+
+        // If it is before 6:00 AM, we are still technically in the "previous" Minecraft day.
+        LocalDate solarDay = nowTime.toLocalDate();
+        if (nowTime.getHour() < ANCHOR_HOUR) {
+            solarDay = solarDay.minusDays(1);
+        }
+
+        long anchorMillis = solarDay.atTime(ANCHOR_HOUR, 0).atZone(zone).toInstant().toEpochMilli();
+        long validUntil = solarDay.plusDays(1).atTime(ANCHOR_HOUR, 0).atZone(zone).toInstant().toEpochMilli();
+
+        // Re-resolve on the next DST change too, in case the zone rules move the anchor around.
+        ZoneOffsetTransition transition = zone.getRules().nextTransition(now);
+        if (transition != null) {
+            validUntil = Math.min(validUntil, transition.toEpochSecond() * 1000L);
+        }
+
+        return new Window(anchorMillis, Math.min(anchorMillis, nowMillis), validUntil, solarDay.toEpochDay());
+    }
+}
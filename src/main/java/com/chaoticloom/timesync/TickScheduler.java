@@ -0,0 +1,204 @@
+package com.chaoticloom.timesync;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * Every recurring server-side job of the mod, driven by a single END_SERVER_TICK hook.
+ *
+ * Periodic jobs live in a hashed timer wheel: a tick only looks at its own slot, so idle ticks cost nothing no matter
+ * how many jobs exist. Each periodic job gets a phase that keeps it off the ticks other jobs already use.
+ * Wall-clock jobs ("top of the next real hour") sit in a queue ordered by deadline and run on the first tick at or
+ * after it.
+ *
+ * The time spent in each job is measured and logged every {@link #REPORT_INTERVAL} ticks.
+ */
+public final class TickScheduler {
+    private static final int WHEEL_SIZE = 256; // Power of 2
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int REPORT_INTERVAL = 20 * 60 * 10; // 10 minutes
+
+    @SuppressWarnings("unchecked")
+    private static final List<Job>[] WHEEL = new List[WHEEL_SIZE];
+    private static final List<Job> PERIODIC = new ArrayList<>();
+    private static final PriorityQueue<Job> DEADLINES = new PriorityQueue<>(Comparator.comparingLong(job -> job.due));
+    private static final List<Job> FIRED = new ArrayList<>();
+    private static final Map<String, Stats> STATS = new LinkedHashMap<>(); // By job name, server thread only
+    private static long currentTick = 0;
+    private static long nextReportTick = REPORT_INTERVAL;
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            WHEEL[i] = new ArrayList<>();
+        }
+    }
+
+    private static final class Stats {
+        long totalNanos;
+        long maxNanos;
+        int runs;
+    }
+
+    private static final class Job {
+        final String name;
+        final int period; // Ticks, 0 for wall-clock jobs
+        final Consumer<MinecraftServer> task;
+        long due; // Tick for periodic jobs, epoch millis for wall-clock jobs
+
+        Job(String name, int period, Consumer<MinecraftServer> task, long due) {
+            this.name = name;
+            this.period = period;
+            this.task = task;
+            this.due = due;
+        }
+    }
+
+    private TickScheduler() {}
+
+    public static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(TickScheduler::tick);
+
+        // Periodic jobs are registered once at mod init and survive between integrated server sessions
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            synchronized (DEADLINES) {
+                DEADLINES.clear();
+            }
+        });
+    }
+
+    /**
+     * Runs the task every {@code period} ticks, starting within the first period.
+     * Must be called from the server thread or during mod init.
+     */
+    public static void every(String name, int period, Consumer<MinecraftServer> task) {
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive: " + period);
+
+        Job job = new Job(name, period, task, currentTick + pickPhase(period));
+        PERIODIC.add(job);
+        WHEEL[(int) (job.due & WHEEL_MASK)].add(job);
+    }
+
+    /**
+     * Runs the task once, on the first tick at or after the given wall-clock time. Safe to call from any thread.
+     */
+    public static void at(String name, long epochMillis, Consumer<MinecraftServer> task) {
+        synchronized (DEADLINES) {
+            DEADLINES.add(new Job(name, 0, task, epochMillis));
+        }
+    }
+
+    /**
+     * Picks the first-run delay (1..period) that collides with the fewest existing periodic jobs.
+     * Two jobs with periods p and q fire on the same tick forever once their phases are equal modulo gcd(p, q).
+     * Every-tick jobs collide with everything, so they are left out of the count.
+     */
+    private static int pickPhase(int period) {
+        if (period == 1) return 1;
+
+        int bestDelay = 1;
+        int bestCollisions = Integer.MAX_VALUE;
+        for (int delay = 1; delay <= period && bestCollisions > 0; delay++) {
+            long first = currentTick + delay;
+            int collisions = 0;
+            for (Job other : PERIODIC) {
+                if (other.period == 1) continue;
+                if (Math.floorMod(first - other.due, gcd(period, other.period)) == 0) collisions++;
+            }
+
+            if (collisions < bestCollisions) {
+                bestCollisions = collisions;
+                bestDelay = delay;
+            }
+        }
+        return bestDelay;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static void tick(MinecraftServer server) {
+        currentTick++;
+
+        // Periodic jobs: only this tick's slot, jobs further than one wheel turn away just wait for their round
+        List<Job> slot = WHEEL[(int) (currentTick & WHEEL_MASK)];
+        for (int i = slot.size() - 1; i >= 0; i--) {
+            Job job = slot.get(i);
+            if (job.due != currentTick) continue;
+
+            slot.set(i, slot.get(slot.size() - 1));
+            slot.remove(slot.size() - 1);
+            FIRED.add(job);
+        }
+
+        for (Job job : FIRED) {
+            run(job, server);
+            job.due = currentTick + job.period;
+            WHEEL[(int) (job.due & WHEEL_MASK)].add(job);
+        }
+        FIRED.clear();
+
+        // Wall-clock jobs
+        long nowMillis = System.currentTimeMillis();
+        synchronized (DEADLINES) {
+            while (!DEADLINES.isEmpty() && DEADLINES.peek().due <= nowMillis) {
+                FIRED.add(DEADLINES.poll());
+            }
+        }
+        for (Job job : FIRED) {
+            run(job, server);
+        }
+        FIRED.clear();
+
+        if (currentTick >= nextReportTick) {
+            nextReportTick = currentTick + REPORT_INTERVAL;
+            report();
+        }
+    }
+
+    private static void run(Job job, MinecraftServer server) {
+        long start = System.nanoTime();
+        try {
+            job.task.accept(server);
+        } catch (RuntimeException e) {
+            LOGGER.error("Scheduled job '" + job.name + "' failed.", e);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Stats stats = STATS.computeIfAbsent(job.name, name -> new Stats());
+        stats.totalNanos += elapsed;
+        stats.maxNanos = Math.max(stats.maxNanos, elapsed);
+        stats.runs++;
+    }
+
+    /**
+     * Logs the cost of every job that ran since the last report, then starts a new window.
+     */
+    private static void report() {
+        STATS.forEach((name, stats) -> {
+            if (stats.runs == 0) return;
+
+            LOGGER.info("Job '{}': {} runs, avg {} µs, max {} µs.", name, stats.runs,
+                    stats.totalNanos / stats.runs / 1000, stats.maxNanos / 1000);
+            stats.totalNanos = 0;
+            stats.maxNanos = 0;
+            stats.runs = 0;
+        });
+    }
+}
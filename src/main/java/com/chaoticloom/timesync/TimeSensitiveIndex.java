@@ -0,0 +1,188 @@
+package com.chaoticloom.timesync;
+
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Positions in a chunk that the offline catch-up has to visit, per {@link TrackedKind} and per section.
+ *
+ * Positions are packed in a short as {@code y << 8 | z << 4 | x}, local to the section. The index is kept up to date
+ * from LevelChunk.setBlockState and saved with the chunk under {@link #TAG}, so a chunk without crops or handled blocks
+ * costs nothing when it loads. Chunks saved without the mod, or still generating, have no index until
+ * {@link #of(LevelChunk)} builds one by scanning the sections once.
+ *
+ * Entries are only a hint: callers still check the block at the position, and drop stale ones.
+ */
+public final class TimeSensitiveIndex {
+    public static final String TAG = TimeSync.MOD_ID + ":index";
+
+    // [kind][section], null when empty. Only touched on the server thread once the chunk is loaded.
+    private final ShortOpenHashSet[][] positions;
+
+    private TimeSensitiveIndex(int sectionCount) {
+        this.positions = new ShortOpenHashSet[TrackedKind.all().length][sectionCount];
+    }
+
+    /**
+     * Returns the chunk's index, building it from the blocks if the chunk doesn't have one yet.
+     */
+    public static TimeSensitiveIndex of(LevelChunk chunk) {
+        IndexedChunk indexed = (IndexedChunk) chunk;
+        TimeSensitiveIndex index = indexed.timesync$getIndex();
+        if (index == null) {
+            index = build(chunk);
+            indexed.timesync$setIndex(index);
+        }
+        return index;
+    }
+
+    private static TimeSensitiveIndex build(LevelChunk chunk) {
+        LevelChunkSection[] sections = chunk.getSections();
+        TimeSensitiveIndex index = new TimeSensitiveIndex(sections.length);
+
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            if (section == null || section.hasOnlyAir()) continue;
+            if (!section.getStates().maybeHas(state -> TrackedKind.of(state) != null)) continue;
+
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        TrackedKind kind = TrackedKind.of(section.getBlockState(x, y, z));
+                        if (kind != null) index.add(kind, i, pack(x, y, z));
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    public static short pack(int x, int y, int z) {
+        return (short) ((y & 15) << 8 | (z & 15) << 4 | (x & 15));
+    }
+
+    /**
+     * Sets pos to the world position of a packed entry.
+     */
+    public static BlockPos.MutableBlockPos unpack(LevelChunk chunk, int section, short packed, BlockPos.MutableBlockPos pos) {
+        return pos.set(chunk.getPos().getMinBlockX() + (packed & 15),
+                chunk.getMinBuildHeight() + section * 16 + (packed >> 8 & 15),
+                chunk.getPos().getMinBlockZ() + (packed >> 4 & 15));
+    }
+
+    public boolean isEmpty() {
+        for (ShortOpenHashSet[] kind : positions) {
+            for (ShortOpenHashSet section : kind) {
+                if (section != null && !section.isEmpty()) return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty(TrackedKind kind) {
+        for (ShortOpenHashSet section : positions[kind.ordinal()]) {
+            if (section != null && !section.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    public int sectionCount() {
+        return positions[0].length;
+    }
+
+    /**
+     * Returns a copy of the packed positions of a kind in a section, empty if there are none.
+     * A copy, so callers can change blocks while they go through it.
+     */
+    public short[] get(TrackedKind kind, int section) {
+        ShortOpenHashSet set = positions[kind.ordinal()][section];
+        return set == null ? new short[0] : set.toShortArray();
+    }
+
+    public void remove(TrackedKind kind, int section, short packed) {
+        ShortOpenHashSet set = positions[kind.ordinal()][section];
+        if (set != null) set.remove(packed);
+    }
+
+    private void add(TrackedKind kind, int section, short packed) {
+        ShortOpenHashSet set = positions[kind.ordinal()][section];
+        if (set == null) {
+            set = new ShortOpenHashSet(4);
+            positions[kind.ordinal()][section] = set;
+        }
+        set.add(packed);
+    }
+
+    /**
+     * Called after a block changed in the chunk.
+     */
+    public void onBlockChanged(int section, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (section < 0 || section >= sectionCount()) return;
+
+        TrackedKind oldKind = TrackedKind.of(oldState);
+        TrackedKind newKind = TrackedKind.of(newState);
+        if (oldKind == newKind) return; // Crops growing and furnaces lighting up don't move anything
+
+        short packed = pack(pos.getX(), pos.getY(), pos.getZ());
+        if (oldKind != null) remove(oldKind, section, packed);
+        if (newKind != null) add(newKind, section, packed);
+    }
+
+    // --- Persistence ---
+
+    /**
+     * One int array per kind, each entry {@code section << 12 | packed position}.
+     */
+    public CompoundTag save() {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("sections", sectionCount());
+        tag.putInt("handlers", TimeSkipHandlers.fingerprint());
+
+        for (TrackedKind kind : TrackedKind.all()) {
+            ShortOpenHashSet[] sections = positions[kind.ordinal()];
+            int count = 0;
+            for (ShortOpenHashSet section : sections) {
+                if (section != null) count += section.size();
+            }
+
+            int[] entries = new int[count];
+            int i = 0;
+            for (int section = 0; section < sections.length; section++) {
+                if (sections[section] == null) continue;
+                for (short packed : sections[section]) {
+                    entries[i++] = section << 12 | (packed & 0xFFF);
+                }
+            }
+            tag.putIntArray(kind.getSerializedName(), entries);
+        }
+        return tag;
+    }
+
+    /**
+     * Returns the stored index, or null if it doesn't fit the chunk (the world height or the handlers changed), so it
+     * gets rebuilt.
+     */
+    @Nullable
+    public static TimeSensitiveIndex load(CompoundTag tag, int sectionCount) {
+        if (tag.getInt("sections") != sectionCount) return null;
+        if (tag.getInt("handlers") != TimeSkipHandlers.fingerprint()) return null;
+
+        TimeSensitiveIndex index = new TimeSensitiveIndex(sectionCount);
+        for (TrackedKind kind : TrackedKind.all()) {
+            if (!tag.contains(kind.getSerializedName(), Tag.TAG_INT_ARRAY)) return null; // Saved before this kind existed
+
+            for (int entry : tag.getIntArray(kind.getSerializedName())) {
+                int section = entry >>> 12;
+                if (section >= sectionCount) return null;
+                index.add(kind, section, (short) (entry & 0xFFF));
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,22 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Catches up one block for the time its chunk was not simulated. Registered per block or per block entity type in
+ * {@link TimeSkipHandlers}, other mods can add their own there.
+ *
+ * Called on the server thread, inside the catch-up's tick budget, so it should take about the same time for any
+ * length of skip.
+ */
+@FunctionalInterface
+public interface TimeSkipHandler {
+    /**
+     * @param blockEntity The block entity at pos, null if the block has none.
+     */
+    void skip(ServerLevel level, BlockPos pos, BlockState state, @Nullable BlockEntity blockEntity, long ticksSkipped);
+}
@@ -0,0 +1,130 @@
+package com.chaoticloom.timesync;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link TimeSkipHandler}s, by block and by block entity type.
+ *
+ * Registrations can happen any time before the server starts. At SERVER_STARTING they are merged over the built-in
+ * handlers into identity maps, and every registered block is checked once to know which ones the
+ * {@link TimeSensitiveIndex} has to track, so dispatch during catch-up is a map lookup per indexed position no matter
+ * how many handlers exist.
+ *
+ * Crops don't go through here, they have their own off-thread path, see {@link CropGrowth}. A handler registered for
+ * a crop block replaces that path for it.
+ */
+public final class TimeSkipHandlers {
+    // Written at mod init, server thread
+    private static final Map<Block, TimeSkipHandler> REGISTERED_BY_BLOCK = new HashMap<>();
+    private static final Map<BlockEntityType<?>, TimeSkipHandler> REGISTERED_BY_BLOCK_ENTITY = new HashMap<>();
+    private static final Map<BlockEntityType<?>, TimeSkipHandler> BUILT_IN_BY_BLOCK_ENTITY = new HashMap<>();
+
+    // Rebuilt at SERVER_STARTING, read-only afterwards so any thread can look them up
+    private static volatile Reference2ObjectMap<Block, TimeSkipHandler> byBlock = Reference2ObjectMaps.emptyMap();
+    private static volatile Reference2ObjectMap<BlockEntityType<?>, TimeSkipHandler> byBlockEntity = Reference2ObjectMaps.emptyMap();
+    private static volatile ReferenceSet<Block> tracked = ReferenceSets.emptySet();
+    private static volatile int fingerprint = 0;
+
+    static {
+        TimeSkipHandler furnace = (level, pos, state, blockEntity, ticksSkipped) -> {
+            if (blockEntity instanceof AbstractFurnaceBlockEntity furnaceEntity) {
+                FurnaceCatchUp.advance(level, furnaceEntity, ticksSkipped);
+            }
+        };
+        BUILT_IN_BY_BLOCK_ENTITY.put(BlockEntityType.FURNACE, furnace);
+        BUILT_IN_BY_BLOCK_ENTITY.put(BlockEntityType.BLAST_FURNACE, furnace);
+        BUILT_IN_BY_BLOCK_ENTITY.put(BlockEntityType.SMOKER, furnace);
+    }
+
+    private TimeSkipHandlers() {}
+
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> rebuild());
+    }
+
+    /**
+     * Registers the handler of a block. Takes precedence over a handler of its block entity type.
+     */
+    public static synchronized void register(Block block, TimeSkipHandler handler) {
+        REGISTERED_BY_BLOCK.put(block, handler);
+    }
+
+    /**
+     * Registers the handler of every block with this block entity type. Replaces the built-in one, if any.
+     */
+    public static synchronized void register(BlockEntityType<?> type, TimeSkipHandler handler) {
+        REGISTERED_BY_BLOCK_ENTITY.put(type, handler);
+    }
+
+    /**
+     * Whether the index has to track the block, i.e. it has a handler of its own or through its block entity type.
+     */
+    public static boolean isTracked(Block block) {
+        return tracked.contains(block);
+    }
+
+    /**
+     * Changes whenever the set of tracked blocks does, so an index saved with other handlers gets rebuilt.
+     */
+    public static int fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Runs the handler of the block at pos.
+     * @return False if nothing handles it (any more), the position can be dropped from the index.
+     */
+    public static boolean dispatch(ServerLevel level, BlockPos pos, BlockState state, @Nullable BlockEntity blockEntity, long ticksSkipped) {
+        TimeSkipHandler handler = byBlock.get(state.getBlock());
+        if (handler == null && blockEntity != null) handler = byBlockEntity.get(blockEntity.getType());
+        if (handler == null) return false;
+
+        handler.skip(level, pos, state, blockEntity, ticksSkipped);
+        return true;
+    }
+
+    private static synchronized void rebuild() {
+        Reference2ObjectMap<Block, TimeSkipHandler> blocks = new Reference2ObjectOpenHashMap<>(REGISTERED_BY_BLOCK);
+        Reference2ObjectMap<BlockEntityType<?>, TimeSkipHandler> blockEntities = new Reference2ObjectOpenHashMap<>(BUILT_IN_BY_BLOCK_ENTITY);
+        blockEntities.putAll(REGISTERED_BY_BLOCK_ENTITY);
+
+        ReferenceSet<Block> trackedBlocks = new ReferenceOpenHashSet<>();
+        int hash = 1;
+        for (Block block : BuiltInRegistries.BLOCK) {
+            boolean handled = blocks.containsKey(block);
+            for (BlockEntityType<?> type : blockEntities.keySet()) {
+                if (handled) break;
+                handled = type.isValid(block.defaultBlockState());
+            }
+
+            if (handled) {
+                trackedBlocks.add(block);
+                hash = 31 * hash + BuiltInRegistries.BLOCK.getKey(block).hashCode();
+            }
+        }
+
+        byBlock = blocks;
+        byBlockEntity = blockEntities;
+        tracked = trackedBlocks;
+        fingerprint = hash;
+        TimeSync.LOGGER.info("{} block(s) have a time skip handler.", trackedBlocks.size());
+    }
+}
@@ -1,15 +1,11 @@
 package com.chaoticloom.timesync;
 
 import com.chaoticloom.timesync.mixin.MobEffectInstanceAccessor;
-import it.unimi.dsi.fastutil.longs.LongSet;
-import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
-import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.BlockPos;
-import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -18,7 +14,6 @@ import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
-import net.minecraft.server.level.ChunkHolder;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.entity.Entity;
@@ -26,14 +21,11 @@ import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.GameRules;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.CropBlock;
-import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.LevelChunk;
-import net.minecraft.world.level.chunk.LevelChunkSection;
 import net.minecraft.world.level.storage.LevelResource;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,86 +47,100 @@ TODO:
 
 public class TimeSkipManager {
     private static final String FILE_NAME = "time_tracker.dat";
-    static final String WAS_LOADED_TAG = MOD_ID + ":seen_before";
-    private static int tickCounter = 0;
+    static final String WAS_LOADED_TAG = MOD_ID + ":seen_before"; // Before LastSeenEntity, only read to migrate
+    private static final int SAVE_INTERVAL = 1200; // 60 seconds
     private static long startUpSavedDiff;
 
     private static final boolean DEBUG = true;
 
-    private static final Set<UUID> PROCESSED_ENTITIES = new HashSet<>();
-    private static final Map<ResourceKey<Level>, LongSet> PROCESSED_CHUNKS = new HashMap<>();
 
-    private static final Queue<ChunkTask> taskQueue = new LinkedList<>();
-    private record ChunkTask(ServerLevel level, LevelChunk chunk, long ticksSkipped) {}
-    public static void queueTimeSkip(ServerLevel level, LevelChunk chunk, long ticksSkipped) {
-        if (ticksSkipped > 0) {
-            taskQueue.add(new ChunkTask(level, chunk, ticksSkipped));
+    /**
+     * Advances the catch-up of one chunk until it is done, the deadline (System.nanoTime) passes, or it has to wait
+     * for the crop computation. Called by {@link CatchUpScheduler}, which keeps the progress in the work entry between
+     * calls.
+     */
+    static CatchUpScheduler.Progress processChunk(ServerLevel level, LevelChunk chunk, CatchUpScheduler.Work work, long deadline) {
+        long ticksSkipped = work.ticksSkipped;
+        TimeSensitiveIndex index = TimeSensitiveIndex.of(chunk);
+        int sectionCount = index.sectionCount();
+
+        // 1. Crops: computed on the workers from a snapshot, applied here
+        if (work.crops == null && !index.isEmpty(TrackedKind.CROP)) {
+            int randomTickSpeed = level.getGameRules().getInt(GameRules.RULE_RANDOMTICKING);
+            if (randomTickSpeed > 0) {
+                ChunkSnapshot snapshot = ChunkSnapshot.take(level, chunk, index);
+                long seed = level.random.nextLong();
+                work.crops = CatchUpScheduler.submit(() -> CropGrowth.compute(snapshot, ticksSkipped, randomTickSpeed, seed));
+                if (work.crops == null) return CatchUpScheduler.Progress.WAITING; // Workers are full, try again later
+            }
         }
-    }
-
-    public static void tick() {
-        if (taskQueue.isEmpty()) return;
 
-        // Process up to 2 chunks per tick.
-        // Increase this number if you want faster updates but more TPS risk.
-        int chunksToProcess = 2;
+        if (work.crops != null) {
+            if (!work.crops.isDone()) return CatchUpScheduler.Progress.WAITING;
 
-        for (int i = 0; i < chunksToProcess; i++) {
-            ChunkTask task = taskQueue.poll();
-            if (task == null) break;
+            // A failed computation was logged by the worker, skip the crops and go on with the rest of the chunk
+            CropGrowth.Diff diff = work.crops.isCompletedExceptionally() ? null : work.crops.getNow(null);
+            if (diff != null && !applyCropChanges(level, chunk, index, diff, work, deadline)) {
+                return CatchUpScheduler.Progress.OUT_OF_BUDGET;
+            }
+        }
 
-            // Verify chunk is still loaded before processing
-            if (task.level.getChunkSource().hasChunk(task.chunk.getPos().x, task.chunk.getPos().z)) {
-                processChunk(task);
+        // 2. Everything with a TimeSkipHandler, one position at a time. Positions are taken once so later changes
+        // don't shift the cursor.
+        if (work.handled == null) {
+            work.handled = new ArrayList<>();
+            for (int section = 0; section < sectionCount; section++) {
+                for (short packed : index.get(TrackedKind.HANDLED, section)) {
+                    work.handled.add(TimeSensitiveIndex.unpack(chunk, section, packed, new BlockPos.MutableBlockPos()).immutable());
+                }
             }
         }
-    }
 
-    /**
-     * Process a chunk when loaded, skipping chunks that we already have checked
-     */
-    private static void processChunk(ChunkTask task) {
-        LevelChunk chunk = task.chunk;
-        ServerLevel level = task.level;
-        long ticksSkipped = task.ticksSkipped;
+        while (work.handledNext < work.handled.size()) {
+            if (System.nanoTime() >= deadline) return CatchUpScheduler.Progress.OUT_OF_BUDGET;
+
+            BlockPos pos = work.handled.get(work.handledNext++);
+            BlockState state = chunk.getBlockState(pos);
+            BlockEntity blockEntity = state.hasBlockEntity() ? chunk.getBlockEntity(pos) : null;
+
+            if (!TimeSkipHandlers.dispatch(level, pos, state, blockEntity, ticksSkipped)) {
+                index.remove(TrackedKind.HANDLED, chunk.getSectionIndex(pos.getY()),
+                        TimeSensitiveIndex.pack(pos.getX(), pos.getY(), pos.getZ()));
+            }
+        }
 
-        skipCropStages(level, chunk, ticksSkipped);
-        skipFurnaceTimes(level, chunk, ticksSkipped);
+        return CatchUpScheduler.Progress.DONE;
     }
 
     public static void init() {
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            TimeSkipManager.tick();
-        });
+        CatchUpScheduler.init();
+        TimeSkipHandlers.init();
+        ChunkLedger.init();
 
-        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+        // Read before the spawn chunks load, they catch up on CHUNK_LOAD before SERVER_STARTED
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> {
             long lastSavedTime = TimeSkipManager.loadLastTime(server);
-            long currentTime = System.currentTimeMillis();
-
-            PROCESSED_ENTITIES.clear();
-            PROCESSED_CHUNKS.clear();
-
-            if (lastSavedTime != -1) {
-                long timeDiff = currentTime - lastSavedTime;
+            startUpSavedDiff = lastSavedTime != -1 ? Math.max(0, System.currentTimeMillis() - lastSavedTime) : -1;
+
+            if (startUpSavedDiff > 0 && DEBUG) {
+                startUpSavedDiff = startUpSavedDiff * 100;
+                for (int i = 0; i < 25; i++) {
+                    if (i % 2 == 0) {
+                        LOGGER.error("DEBUG MODE ON, TIME SKIP");
+                    } else {
+                        LOGGER.warn("DEBUG MODE ON, TIME SKIP");
+                    }
+                }
+            }
+        });
 
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (startUpSavedDiff != -1) {
                 // Only do logic if time actually passed and it's a positive value
-                if (timeDiff > 0) {
-                    LOGGER.info("Time skipped: " + timeDiff + "ms");
-
-                    // --- CALL YOUR STATIC METHOD HERE ---
-                    if (DEBUG) {
-                        timeDiff = timeDiff * 100;
-                        for (int i = 0; i < 25; i++) {
-                            if (i % 2 == 0) {
-                                LOGGER.error("DEBUG MODE ON, TIME SKIP");
-                            } else {
-                                LOGGER.warn("DEBUG MODE ON, TIME SKIP");
-                            }
-                        }
-                    }
+                if (startUpSavedDiff > 0) {
+                    LOGGER.info("Time skipped: " + startUpSavedDiff + "ms");
 
-                    startUpSavedDiff = timeDiff;
-                    applyStartUpTimeSkipEffects(server, timeDiff);
+                    applyStartUpTimeSkipEffects(server, startUpSavedDiff);
 
                     // --- CRITICAL STEP ---
                     // Save immediately after logic finishes.
@@ -143,6 +149,7 @@ public class TimeSkipManager {
                 }
             } else {
                 LOGGER.info("No previous time saved. Creating new tracker.");
+                startUpSavedDiff = 0;
                 TimeSkipManager.saveCurrentTime(server);
             }
         });
@@ -152,73 +159,64 @@ public class TimeSkipManager {
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
             LOGGER.info("Server stopping, saving timestamp.");
             TimeSkipManager.saveCurrentTime(server);
-            PROCESSED_ENTITIES.clear();
-            PROCESSED_CHUNKS.clear();
         });
 
-        // 3. SERVER TICK EVENT (Crash Protection)
-        // Runs at the end of every server tick.
-        ServerTickEvents.END_SERVER_TICK.register(server -> {
-            tickCounter++;
-
-            // 20 ticks = 1 second. 1200 ticks = 60 seconds (1 minute).
-            if (tickCounter >= 1200) {
-                TimeSkipManager.saveCurrentTime(server);
-                tickCounter = 0; // Reset counter
-            }
-        });
+        // 3. PERIODIC SAVE (Crash Protection)
+        TickScheduler.every("time-tracker-save", SAVE_INTERVAL, TimeSkipManager::saveCurrentTime);
 
         ServerChunkEvents.CHUNK_LOAD.register((ServerLevel level, LevelChunk chunk) -> {
-            ResourceKey<Level> dimKey = level.dimension();
-            long chunkPosLong = chunk.getPos().toLong();
+            long now = System.currentTimeMillis();
+            long lastSimulated = ChunkLedger.onLoad(level, chunk.getPos());
+
+            long timeDiff;
+            if (lastSimulated > 0) {
+                timeDiff = now - lastSimulated;
+            } else {
+                // Never stamped: saved before the ledger existed, or just generated and nothing to catch up
+                timeDiff = chunk.getInhabitedTime() > 0 ? Math.max(0, startUpSavedDiff) : 0;
+            }
 
-            LongSet chunksInDimension = PROCESSED_CHUNKS.computeIfAbsent(dimKey, k -> new LongOpenHashSet());
+            applyChunkLoadedTimeSkipEffects(level, chunk, timeDiff);
 
-            if (chunksInDimension.add(chunkPosLong)) {
-                applyChunkLoadedTimeSkipEffects(level, chunk, startUpSavedDiff);
+            // Nothing queued, so it is caught up already. Otherwise CatchUpScheduler stamps it once it is done.
+            if (CatchUpScheduler.outstandingTicks(level, chunk.getPos()) == 0) {
+                ChunkLedger.stamp(level, chunk.getPos(), now);
             }
         });
 
+        ServerChunkEvents.CHUNK_UNLOAD.register((ServerLevel level, LevelChunk chunk) -> {
+            // Catch-up that didn't get to run is owed again on the next load
+            long outstandingTicks = CatchUpScheduler.cancel(level, chunk.getPos());
+            ChunkLedger.onUnload(level, chunk.getPos(), System.currentTimeMillis() - outstandingTicks * 50L);
+        });
+
         ServerEntityEvents.ENTITY_LOAD.register((Entity entity, ServerLevel level) -> {
             if (level.isClientSide()) return;
 
-            UUID id = entity.getUUID();
+            LastSeenEntity seen = (LastSeenEntity) entity;
+            long lastSeen = seen.timesync$getLastSeen();
 
-            // 1. Check if we have already processed this entity in this specific runtime session
-            if (!PROCESSED_ENTITIES.contains(id)) {
-
-                // 2. Check if the entity has our persistent "signature" tag
-                // If the tag is present, it means the entity was saved to disk and is now reloading (OLD)
-                // If the tag is missing, it is a brand new spawn or a pre-mod entity (NEW)
-                boolean isPreviouslyLoaded = entity.getTags().contains(WAS_LOADED_TAG);
-
-                if (isPreviouslyLoaded) {
-                    // It's an existing baby loaded from disk -> Apply the time skip
-                    applyEntityLoadedTimeSkipEffects(entity, level, startUpSavedDiff);
-                } else {
-                    // It's a brand new spawn (or first time seeing it) -> Mark it for next time, but SKIP the effect now
-                    entity.addTag(WAS_LOADED_TAG);
-                }
-
-                // Add to runtime set to prevent double processing in this session
-                PROCESSED_ENTITIES.add(id);
+            if (lastSeen > 0) {
+                // Loaded from disk: it missed everything since it was saved
+                applyEntityLoadedTimeSkipEffects(entity, level, System.currentTimeMillis() - lastSeen);
+            } else if (entity.getTags().contains(WAS_LOADED_TAG)) {
+                // Saved by an older version, only the downtime is known
+                applyEntityLoadedTimeSkipEffects(entity, level, Math.max(0, startUpSavedDiff));
             }
-        });
 
-        ServerLivingEntityEvents.AFTER_DEATH.register((livingEntity, damageSource) -> {
-            if (!livingEntity.level().isClientSide()) {
-                PROCESSED_ENTITIES.remove(livingEntity.getUUID());
-            }
+            // Brand new spawns have nothing to catch up. Clearing it makes a second load event without a save a no-op.
+            seen.timesync$setLastSeen(0);
+            entity.removeTag(WAS_LOADED_TAG);
         });
     }
 
-    // Helper to get the file path for the current world
-    private static Path getFilePath(ServerLevel level) {
-        return level.getServer().getWorldPath(LevelResource.ROOT).resolve(level.dimension().location().getPath()).resolve(FILE_NAME);
+    // Helper to get the file path for the current world. Doesn't need the levels, so it works at SERVER_STARTING.
+    private static Path getFilePath(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(Level.OVERWORLD.location().getPath()).resolve(FILE_NAME);
     }
 
     public static void saveCurrentTime(MinecraftServer server) {
-        Path path = getFilePath(server.overworld());
+        Path path = getFilePath(server);
         long currentTime = System.currentTimeMillis();
         try {
             // Write string representation of the long to file
@@ -230,7 +228,7 @@ public class TimeSkipManager {
     }
 
     public static long loadLastTime(MinecraftServer server) {
-        Path path = getFilePath(server.overworld());
+        Path path = getFilePath(server);
         if (!Files.exists(path)) {
             return -1; // Return -1 if file doesn't exist (first run)
         }
@@ -266,48 +264,27 @@ public class TimeSkipManager {
         LOGGER.info("SKIPPING TIME: {} ms ({} ticks)", timeDiff, ticksSkipped);
         LOGGER.info("{} days, {} hours, {} minutes and {} seconds.", days, hours, minutes, seconds);
 
-        for (ServerLevel level : server.getAllLevels()) {
-            for (ChunkHolder holder : level.getChunkSource().chunkMap.getChunks()) {
-                LevelChunk chunk = holder.getFullChunk();
-                if (chunk == null) continue; // Skip not-ready chunks
-
-                ResourceKey<Level> dimKey = level.dimension();
-                long chunkPosLong = chunk.getPos().toLong();
-                LongSet processed = PROCESSED_CHUNKS.computeIfAbsent(dimKey, k -> new LongOpenHashSet());
-
-                if (processed.add(chunkPosLong)) {
-                    applyChunkLoadedTimeSkipEffects(level, chunk, startUpSavedDiff);
-                }
-            }
-        }
-
-        for (ServerLevel level : server.getAllLevels()) {
-            for (Entity entity : level.getAllEntities()) {
-                UUID id = entity.getUUID();
-                if (!PROCESSED_ENTITIES.contains(id)) {
-                    applyEntityLoadedTimeSkipEffects(entity, level, startUpSavedDiff);
-                    PROCESSED_ENTITIES.add(id);
-                }
-            }
-        }
-
+        // Chunks and entities catch up as they load, see ChunkLedger and LastSeenEntity
     }
 
     /**
-     * Applies logic based on the real-world time elapsed while the server was offline.
-     * Gets called when a chunk loads for the first time on the server.
+     * Applies logic based on the real-world time elapsed since the chunk was last simulated, see {@link ChunkLedger}.
+     * Gets called every time a chunk loads.
      * @param timeDiff The amount of time passed in **milliseconds** (ms).
      */
     public static void applyChunkLoadedTimeSkipEffects(ServerLevel serverLevel, LevelChunk levelChunk, long timeDiff) {
         long ticksSkipped = timeDiff / 50L;
         if (ticksSkipped <= 0) return;
 
-        TimeSkipManager.queueTimeSkip(serverLevel, levelChunk, timeDiff); // async applications
+        // Chunks without crops or handled blocks have nothing to catch up
+        if (TimeSensitiveIndex.of(levelChunk).isEmpty()) return;
+
+        CatchUpScheduler.enqueue(serverLevel, levelChunk.getPos(), ticksSkipped); // Spread over the next ticks
     }
 
     /**
      * Applies logic based on the real-world time elapsed while the server was offline.
-     * Gets called when an entity gets loaded for the first time on the server.
+     * Gets called when an entity loads from disk, with the time since it was saved.
      * @param timeDiff The amount of time passed in **milliseconds** (ms).
      */
     public static void applyEntityLoadedTimeSkipEffects(Entity entity, ServerLevel serverLevel, long timeDiff) {
@@ -338,71 +315,31 @@ public class TimeSkipManager {
         }
     }
 
-    private static void skipCropStages(ServerLevel level, LevelChunk chunk, long ticksSkipped) {
-        int randomTickSpeed = level.getGameRules().getInt(GameRules.RULE_RANDOMTICKING);
-        if (randomTickSpeed <= 0) return;
-
-        double chancePerTick = (double) randomTickSpeed / 4096.0;
-        int estimatedUpdates = (int) (ticksSkipped * chancePerTick);
-        int attemptsToSimulate = Math.min(estimatedUpdates, 64);
-
-        LevelChunkSection[] sections = chunk.getSections();
+    /**
+     * Applies the computed crop ages, skipping blocks that changed since the snapshot.
+     * @return False if the deadline passed first, work.cropChange tells where to continue.
+     */
+    private static boolean applyCropChanges(ServerLevel level, LevelChunk chunk, TimeSensitiveIndex index, CropGrowth.Diff diff, CatchUpScheduler.Work work, long deadline) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
 
-        for (int i = 0; i < sections.length; i++) {
-            LevelChunkSection section = sections[i];
-            if (section == null || section.hasOnlyAir()) continue;
+        while (work.cropChange < diff.size()) {
+            if ((work.cropChange & 63) == 0 && System.nanoTime() >= deadline) return false;
 
-            if (!section.getStates().maybeHas(state -> state.getBlock() instanceof CropBlock)) {
-                continue;
-            }
+            int i = work.cropChange++;
+            int section = diff.entries()[i] >>> 12;
+            short packed = (short) (diff.entries()[i] & 0xFFF);
+            TimeSensitiveIndex.unpack(chunk, section, packed, pos);
 
-            int sectionBottomY = chunk.getMinBuildHeight() + (i * 16);
-
-            for (int x = 0; x < 16; x++) {
-                for (int y = 0; y < 16; y++) {
-                    for (int z = 0; z < 16; z++) {
-                        BlockState state = section.getBlockState(x, y, z);
-
-                        // We already know this section contains crops, but we still check the specific block
-                        if (state.getBlock() instanceof CropBlock && state.isRandomlyTicking()) {
-
-                            BlockPos pos = new BlockPos(
-                                    chunk.getPos().getMinBlockX() + x,
-                                    sectionBottomY + y,
-                                    chunk.getPos().getMinBlockZ() + z
-                            );
-
-                            for (int k = 0; k < attemptsToSimulate; k++) {
-                                BlockState currentState = level.getBlockState(pos);
-                                if (!(currentState.getBlock() instanceof CropBlock) || !currentState.isRandomlyTicking()) {
-                                    break;
-                                }
-                                currentState.randomTick(level, pos, level.random);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
+            if (chunk.getBlockState(pos) != diff.expected()[i]) continue; // Changed meanwhile
 
-    private static void skipFurnaceTimes(ServerLevel level, LevelChunk chunk, long ticksSkipped) {
-        for (BlockEntity be : chunk.getBlockEntities().values()) {
-            if (be instanceof AbstractFurnaceBlockEntity furnace) {
-                simulateFurnace(level, furnace, ticksSkipped);
+            BlockState updated = diff.updated()[i];
+            if (updated == null) {
+                index.remove(TrackedKind.CROP, section, packed);
+            } else {
+                level.setBlock(pos, updated, Block.UPDATE_CLIENTS);
             }
         }
-    }
-
-    private static void simulateFurnace(ServerLevel level, AbstractFurnaceBlockEntity furnace, long ticksSkipped) {
-        long startTime = System.currentTimeMillis();
-        for (int i = 0; i < ticksSkipped; i++) {
-            AbstractFurnaceBlockEntity.serverTick(level, furnace.getBlockPos(), furnace.getBlockState(), furnace);
-        }
-        long endTime = System.currentTimeMillis();
-        long elapsed = endTime - startTime;
-        long seconds = TimeUnit.MILLISECONDS.toSeconds(elapsed);
-        LOGGER.info("Furnace ticking took {} milis and {} seconds.", elapsed, seconds);
+        return true;
     }
 }
 
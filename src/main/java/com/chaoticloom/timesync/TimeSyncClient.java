@@ -2,29 +2,66 @@ package com.chaoticloom.timesync;
 
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
 
 public class TimeSyncClient implements ClientModInitializer {
     @Override
     public void onInitializeClient() {
         ClientPlayNetworking.registerGlobalReceiver(TimeSync.SYNC_PACKET_ID, (client, handler, buf, responseSender) -> {
-            // Read the long from the packet
-            long receivedTimestamp = buf.readLong();
-
-            // Execute on the main client thread to be safe
-            client.execute(() -> {
-                TimeSync.LOGGER.info("Received Sync Timestamp: {}", receivedTimestamp);
-                TimeSync.cachedTimestamp = receivedTimestamp;
-            });
+            // Taken first thing on the network thread, this is t3 of the clock exchange
+            long clientReceived = System.currentTimeMillis();
+
+            byte kind = buf.readByte();
+            if (kind == TimeSync.SYNC_CLOCK) {
+                ClockDiscipline.onSample(buf.readLong(), buf.readLong(), buf.readLong(), clientReceived);
+                return;
+            }
+
+            // Read one timestamp per dimension
+            int count = buf.readVarInt();
+            for (int i = 0; i < count; i++) {
+                ResourceKey<Level> dimension = ResourceKey.create(Registries.DIMENSION, buf.readResourceLocation());
+                long receivedTimestamp = buf.readLong();
+
+                TimeSync.LOGGER.info("Received Sync Timestamp for {}: {}", dimension.location(), receivedTimestamp);
+                CreationTimestamps.putClient(dimension, receivedTimestamp);
+            }
+        });
+
+        // Swapped in straight from the network thread, ClientWeatherController only reads it on tick
+        ClientPlayNetworking.registerGlobalReceiver(TimeSync.WEATHER_PACKET_ID, (client, handler, buf, responseSender) -> {
+            ClientWeatherController.setSnapshot(WeatherSync.Snapshot.read(buf));
+        });
+
+        ClientPlayNetworking.registerGlobalReceiver(TimeSync.FORECAST_PACKET_ID, (client, handler, buf, responseSender) -> {
+            ForecastSync.Payload payload = ForecastSync.Payload.read(buf);
+            client.execute(() -> ClientTabList.setPayload(payload));
+        });
+
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            CreationTimestamps.clearClient();
+            ClockDiscipline.reset();
+            ClientWeatherController.reset();
+            client.execute(ClientTabList::reset);
         });
 
         ClientTickEvents.START_CLIENT_TICK.register((client) -> {
-            if (client.level == null) {
-                client.execute(() -> {
-                    TimeSync.cachedTimestamp = null;
-                });
-            } else {
+            if (client.level != null) {
                 ClientWeatherController.tick();
+                ClientTabList.tick(client);
+
+                // Only servers running the mod answer probes
+                if (ClientPlayNetworking.canSend(TimeSync.SYNC_PACKET_ID) && ClockDiscipline.shouldProbe(System.currentTimeMillis())) {
+                    FriendlyByteBuf buf = PacketByteBufs.create();
+                    buf.writeLong(System.currentTimeMillis());
+                    ClientPlayNetworking.send(TimeSync.SYNC_PACKET_ID, buf);
+                }
             }
         });
     }
@@ -0,0 +1,39 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The kinds of blocks the offline catch-up cares about, see {@link TimeSensitiveIndex}.
+ */
+public enum TrackedKind {
+    CROP("crop"),
+    HANDLED("handled"); // Has a TimeSkipHandler
+
+    private static final TrackedKind[] VALUES = values();
+
+    private final String serializedName;
+
+    TrackedKind(String serializedName) {
+        this.serializedName = serializedName;
+    }
+
+    public String getSerializedName() {
+        return serializedName;
+    }
+
+    static TrackedKind[] all() {
+        return VALUES;
+    }
+
+    /**
+     * Returns the kind of the state, null if nothing needs to catch up there.
+     */
+    @Nullable
+    public static TrackedKind of(BlockState state) {
+        if (TimeSkipHandlers.isTracked(state.getBlock())) return HANDLED;
+        if (state.getBlock() instanceof CropBlock) return CROP;
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.chaoticloom.timesync;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * The mod's own lang files (assets/timesync/lang), readable on the server.
+ *
+ * Vanilla clients don't have our lang files, so the tab list can't use translatable components and is rendered
+ * server-side, once per client language. Tables are loaded from the classpath on first use and cached.
+ * A language without a file falls back to its main variant (es_mx -> es_es), then to en_us, key by key.
+ */
+public final class Translations {
+    public static final String DEFAULT_LANGUAGE = "en_us";
+    private static final String LANG_PATH = "assets/" + TimeSync.MOD_ID + "/lang/";
+
+    // Minecraft language codes, anything else never reaches the resource path
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("[a-z0-9_]{1,16}");
+
+    private static final int MAX_CACHED = 64;
+    private static final Map<String, Table> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * One language, with the Java locale and date format it implies.
+     */
+    public static final class Table {
+        private final String language;
+        private final Map<String, String> entries;
+        private final Table fallback;
+        private final Locale locale;
+        private final DateTimeFormatter dateFormat;
+
+        private Table(String language, Map<String, String> entries, Table fallback) {
+            this.language = language;
+            this.entries = entries;
+            this.fallback = fallback;
+            this.locale = Locale.forLanguageTag(language.replace('_', '-'));
+            this.dateFormat = DateTimeFormatter.ofPattern(get("timesync.tab.date_format"), locale);
+        }
+
+        public String language() {
+            return language;
+        }
+
+        public Locale locale() {
+            return locale;
+        }
+
+        public DateTimeFormatter dateFormat() {
+            return dateFormat;
+        }
+
+        /**
+         * Returns the translation, or the key itself if no table in the chain has it.
+         */
+        public String get(String key) {
+            String value = entries.get(key);
+            if (value != null) return value;
+            return fallback != null ? fallback.get(key) : key;
+        }
+    }
+
+    private Translations() {}
+
+    /**
+     * Returns the table for a Minecraft language code such as "es_es". Never null.
+     */
+    public static Table get(String language) {
+        String code = language == null ? DEFAULT_LANGUAGE : language.toLowerCase(Locale.ROOT);
+        if (!LANGUAGE_CODE.matcher(code).matches()) code = DEFAULT_LANGUAGE;
+        Table table = TABLES.get(code);
+        if (table != null) return table;
+
+        table = load(code);
+        // Clients pick the language string, don't let made-up ones grow the cache forever
+        if (TABLES.size() >= MAX_CACHED) return get(DEFAULT_LANGUAGE);
+
+        Table existing = TABLES.putIfAbsent(code, table);
+        return existing != null ? existing : table;
+    }
+
+    private static Table load(String language) {
+        Map<String, String> entries = read(language);
+        if (language.equals(DEFAULT_LANGUAGE)) {
+            return new Table(language, entries != null ? entries : Map.of(), null);
+        }
+
+        // es_mx -> es_es -> en_us
+        int separator = language.indexOf('_');
+        String main = separator > 0 ? language.substring(0, separator) : language;
+        String mainVariant = main + "_" + main;
+        Table fallback = !language.equals(mainVariant) && exists(mainVariant) ? get(mainVariant) : get(DEFAULT_LANGUAGE);
+
+        // Languages without a file of their own just use the fallback's table
+        return entries != null ? new Table(language, entries, fallback) : fallback;
+    }
+
+    private static boolean exists(String language) {
+        return Translations.class.getClassLoader().getResource(LANG_PATH + language + ".json") != null;
+    }
+
+    private static Map<String, String> read(String language) {
+        try (InputStream in = Translations.class.getClassLoader().getResourceAsStream(LANG_PATH + language + ".json")) {
+            if (in == null) return null;
+
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+                Map<String, String> entries = new HashMap<>();
+                for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+                    entries.put(entry.getKey(), entry.getValue().getAsString());
+                }
+                return entries;
+            }
+        } catch (IOException | JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            LOGGER.error("Failed to read lang file " + language, e);
+            return null;
+        }
+    }
+}
@@ -1,18 +1,88 @@
 package com.chaoticloom.timesync;
 
-import java.util.List;
-
+/**
+ * Compact forecast: the hourly WMO codes as a byte array starting at {@link #baseHour}.
+ * Looking up an hour is a subtraction and an array load, no strings and no boxing.
+ */
 public class WeatherCache {
-    public long lastUpdateTimestamp; // Unix time when we last fetched
-    public Current current;
-    public Hourly hourly;
+    public static final long HOUR_MILLIS = 3_600_000L;
+
+    public final long lastUpdateTimestamp; // Unix time (ms) of the "current" snapshot
+    public final int currentCode; // "current" snapshot, -1 if missing
+    public final long baseHour; // Epoch hour of codes[0], the location's local midnight of the first day
+    private final byte[] codes;
+    private final DailyForecastIndex daily;
 
-    public static class Current {
-        public int weather_code;
+    public WeatherCache(long lastUpdateTimestamp, int currentCode, long baseHour, byte[] codes) {
+        this.lastUpdateTimestamp = lastUpdateTimestamp;
+        this.currentCode = currentCode;
+        this.baseHour = baseHour;
+        this.codes = codes;
+        this.daily = DailyForecastIndex.of(codes);
     }
 
-    public static class Hourly {
-        public List<String> time; // ISO8601 strings
-        public List<Integer> weather_code;
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * The raw hourly codes, for serialization. Don't modify the returned array.
+     */
+    byte[] codes() {
+        return codes;
+    }
+
+    /**
+     * Per-day summaries, day 0 starting at {@link #baseHour}.
+     */
+    public DailyForecastIndex daily() {
+        return daily;
+    }
+
+    /**
+     * Returns the code at the given index of the hourly list, -1 if out of range.
+     */
+    public int codeAtIndex(int index) {
+        if (index < 0 || index >= codes.length) return -1;
+        return codes[index];
+    }
+
+    /**
+     * Returns the forecast code for the given epoch hour, -1 if out of range.
+     */
+    public int codeAtHour(long epochHour) {
+        long index = epochHour - baseHour;
+        if (index < 0 || index >= codes.length) return -1;
+        return codes[(int) index];
+    }
+
+    /**
+     * Returns the first epoch hour after nowMillis whose forecast differs from the given code, -1 if there is none.
+     */
+    public long nextChangeHour(long nowMillis, int code) {
+        long start = Math.max(0, indexOf(nowMillis) + 1);
+        for (long i = start; i < codes.length; i++) {
+            if (codes[(int) i] != code) return baseHour + i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the hour containing nowMillis, may be out of range.
+     */
+    public long indexOf(long nowMillis) {
+        return Math.floorDiv(nowMillis, HOUR_MILLIS) - baseHour;
+    }
+
+    /**
+     * Returns the best code for the given moment: the "current" snapshot while it is from this same hour,
+     * the hourly forecast otherwise, and the snapshot again if the forecast ran out.
+     */
+    public int codeFor(long nowMillis) {
+        long hour = Math.floorDiv(nowMillis, HOUR_MILLIS);
+        if (currentCode >= 0 && hour == Math.floorDiv(lastUpdateTimestamp, HOUR_MILLIS)) return currentCode;
+
+        int code = codeAtHour(hour);
+        return code >= 0 ? code : currentCode;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.chaoticloom.timesync;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Everything the mod derives from a WMO code, precomputed once.
+ *
+ * Codes with the same state and strength share the same instance, and {@link #of(int)} is a single array load,
+ * so this is cheap enough for the tab list loops and the per-frame fog mixin.
+ *
+ * @param state      Null if the code is unknown, in that case vanilla weather is left alone.
+ * @param raining    Minecraft rain flag for {@code setWeatherParameters}.
+ * @param thundering Minecraft thunder flag for {@code setWeatherParameters}.
+ * @param cloudiness Custom sky darkening, see {@link ClientWeatherController}.
+ * @param icon       Unicode icon + color code for the tab list.
+ * @param nameKey    Translation key of the short friendly name for the tab list, see {@link Translations}.
+ * @param weight     "Severity Score", higher = this weather takes priority in the forecast.
+ */
+public record WeatherCondition(@Nullable WeatherState state, WeatherStateStrength strength,
+                               boolean raining, boolean thundering, float cloudiness,
+                               String icon, String nameKey, int weight) {
+    public static final int MAX_CODE = 99;
+
+    public static final WeatherCondition UNKNOWN = new WeatherCondition(null, WeatherStateStrength.MODERATE, false, false, 0f, "§7?", "timesync.weather.unknown", 1);
+
+    private static final WeatherCondition[] BY_CODE = new WeatherCondition[MAX_CODE + 1];
+
+    static {
+        // One shared instance per state/strength pair
+        WeatherCondition[][] flyweights = new WeatherCondition[WeatherState.values().length][WeatherStateStrength.values().length];
+        for (WeatherState state : WeatherState.values()) {
+            for (WeatherStateStrength strength : WeatherStateStrength.values()) {
+                flyweights[state.ordinal()][strength.ordinal()] = create(state, strength);
+            }
+        }
+
+        for (int code = 0; code <= MAX_CODE; code++) {
+            WeatherState state = findState(code);
+            BY_CODE[code] = state == null ? UNKNOWN : flyweights[state.ordinal()][findStrength(code).ordinal()];
+        }
+    }
+
+    /**
+     * Resolves a WMO code. Never returns null, unknown codes map to {@link #UNKNOWN}.
+     */
+    public static WeatherCondition of(int code) {
+        if (code < 0 || code > MAX_CODE) return UNKNOWN;
+        return BY_CODE[code];
+    }
+
+    private static WeatherCondition create(WeatherState state, WeatherStateStrength strength) {
+        // Colors: e=yellow, 7=gray, b=aqua, 9=blue, 8=dark gray
+        return switch (state) {
+            case CLEAR -> new WeatherCondition(state, strength, false, false, 0f, "§e☀", "timesync.weather.clear", 1);
+            case CLOUDY -> switch (strength) {
+                case SLIGHT -> new WeatherCondition(state, strength, false, false, 0.35f, "§7⛅", "timesync.weather.cloudy.slight", 3);
+                case MODERATE -> new WeatherCondition(state, strength, false, false, 0.5f, "§7⛅", "timesync.weather.cloudy", 3);
+                case INTENSE -> new WeatherCondition(state, strength, false, false, 1f, "§7☁", "timesync.weather.cloudy.intense", 5);
+            };
+            case FOG -> new WeatherCondition(state, strength, false, false, 0f, "§7🌫", "timesync.weather.fog", 2);
+            case RAINING -> switch (strength) {
+                case SLIGHT -> new WeatherCondition(state, strength, true, false, 0f, "§b🌦", "timesync.weather.rain.slight", 15);
+                case MODERATE -> new WeatherCondition(state, strength, true, false, 0f, "§b🌧", "timesync.weather.rain", 15);
+                case INTENSE -> new WeatherCondition(state, strength, true, false, 0f, "§9☔", "timesync.weather.rain.intense", 35);
+            };
+            case SNOWING -> switch (strength) {
+                case SLIGHT -> new WeatherCondition(state, strength, true, false, 0f, "§f❅", "timesync.weather.snow.slight", 20);
+                case MODERATE -> new WeatherCondition(state, strength, true, false, 0f, "§f❄", "timesync.weather.snow", 20);
+                case INTENSE -> new WeatherCondition(state, strength, true, false, 0f, "§f🌨", "timesync.weather.snow.intense", 40);
+            };
+            case THUNDERSTORM -> switch (strength) {
+                case SLIGHT, MODERATE -> new WeatherCondition(state, strength, true, true, 0f, "§5⛈", "timesync.weather.thunderstorm", 50);
+                case INTENSE -> new WeatherCondition(state, strength, true, true, 0f, "§5⛈", "timesync.weather.thunderstorm.intense", 50);
+            };
+        };
+    }
+
+    private static WeatherState findState(int code) {
+        for (WeatherState state : WeatherState.values()) {
+            for (int c : state.getCodes()) {
+                if (c == code) {
+                    return state;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static WeatherStateStrength findStrength(int code) {
+        for (WeatherStateStrength strength : WeatherStateStrength.values()) {
+            for (int c : strength.getCodes()) {
+                if (c == code) {
+                    return strength;
+                }
+            }
+        }
+        return WeatherStateStrength.MODERATE;
+    }
+}
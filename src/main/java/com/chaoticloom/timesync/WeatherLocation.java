@@ -0,0 +1,7 @@
+package com.chaoticloom.timesync;
+
+/**
+ * A real-world place whose weather a dimension follows.
+ * @param name Short id, also used for the cache file name.
+ */
+public record WeatherLocation(String name, double latitude, double longitude) {}
@@ -0,0 +1,118 @@
+package com.chaoticloom.timesync;
+
+import net.minecraft.ResourceLocationException;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * Which real-world location each dimension follows, read from config/timesync-locations.json.
+ *
+ * Locations are addressed by index so the forecast store can be a plain array, and every location is fetched in
+ * the same batched request. Dimensions that are not listed follow the default location.
+ */
+public final class WeatherLocations {
+    private static final String FILE_NAME = "timesync-locations.json";
+    private static final WeatherLocation DEFAULT = new WeatherLocation("seville", 37.3279072, -5.9400771);
+
+    private static List<WeatherLocation> locations = List.of(DEFAULT);
+    private static Map<ResourceKey<Level>, Integer> byDimension = Map.of();
+    private static int defaultIndex = 0;
+
+    /**
+     * On-disk layout of the config file.
+     */
+    private static class Config {
+        String defaultLocation = DEFAULT.name();
+        Map<String, Coordinates> locations = new LinkedHashMap<>(Map.of(DEFAULT.name(), new Coordinates(DEFAULT.latitude(), DEFAULT.longitude())));
+        Map<String, String> dimensions = new LinkedHashMap<>(Map.of(Level.OVERWORLD.location().toString(), DEFAULT.name()));
+    }
+
+    private static class Coordinates {
+        double latitude;
+        double longitude;
+
+        Coordinates(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private WeatherLocations() {}
+
+    /**
+     * Reads the config, writing the default one first if it doesn't exist. Falls back to the default location on errors.
+     */
+    public static void load() {
+        apply(ConfigFile.load(FILE_NAME, Config.class, Config::new));
+    }
+
+    public static List<WeatherLocation> all() {
+        return locations;
+    }
+
+    public static int count() {
+        return locations.size();
+    }
+
+    /**
+     * Returns the index of the location the level follows.
+     */
+    public static int indexOf(ServerLevel level) {
+        return byDimension.getOrDefault(level.dimension(), defaultIndex);
+    }
+
+    private static void apply(Config config) {
+        List<WeatherLocation> loaded = new ArrayList<>();
+        Map<String, Integer> byName = new HashMap<>();
+
+        if (config.locations != null) {
+            config.locations.forEach((name, coordinates) -> {
+                if (coordinates == null || !name.matches("[a-z0-9_-]+")) {
+                    LOGGER.warn("Ignoring weather location '{}', names must be lowercase a-z, 0-9, _ or -.", name);
+                    return;
+                }
+                byName.put(name, loaded.size());
+                loaded.add(new WeatherLocation(name, coordinates.latitude, coordinates.longitude));
+            });
+        }
+
+        if (loaded.isEmpty()) {
+            byName.put(DEFAULT.name(), 0);
+            loaded.add(DEFAULT);
+        }
+
+        Map<ResourceKey<Level>, Integer> dimensions = new HashMap<>();
+        if (config.dimensions != null) {
+            config.dimensions.forEach((dimension, name) -> {
+                Integer index = byName.get(name);
+                if (index == null) {
+                    LOGGER.warn("Dimension {} points to unknown weather location '{}'.", dimension, name);
+                    return;
+                }
+
+                try {
+                    dimensions.put(ResourceKey.create(Registries.DIMENSION, new ResourceLocation(dimension)), index);
+                } catch (ResourceLocationException e) {
+                    LOGGER.warn("Ignoring invalid dimension id '{}'.", dimension);
+                }
+            });
+        }
+
+        locations = List.copyOf(loaded);
+        byDimension = dimensions;
+        defaultIndex = byName.getOrDefault(config.defaultLocation, 0);
+
+        LOGGER.info("Loaded {} weather location(s).", locations.size());
+    }
+}
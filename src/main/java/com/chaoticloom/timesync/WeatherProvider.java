@@ -0,0 +1,15 @@
+package com.chaoticloom.timesync;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of forecasts for {@link WeatherService}.
+ *
+ * Implementations must not block the caller. The returned list follows the order of the given locations and may
+ * contain nulls for locations without data. The future completes with null (not exceptionally) if the whole fetch
+ * failed, so {@link ForecastScheduler} can back off.
+ */
+public interface WeatherProvider {
+    CompletableFuture<List<WeatherCache>> fetch(List<WeatherLocation> locations);
+}
@@ -0,0 +1,46 @@
+package com.chaoticloom.timesync;
+
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.nio.file.Path;
+
+import static com.chaoticloom.timesync.TimeSync.LOGGER;
+
+/**
+ * Picks the {@link WeatherProvider} from config/timesync-provider.json.
+ *
+ * "open-meteo" (the default) fetches live data. "replay" reads recorded responses from {@code replayDirectory},
+ * relative to the config directory, for load tests and soak runs without network.
+ */
+public final class WeatherProviders {
+    private static final String FILE_NAME = "timesync-provider.json";
+
+    /**
+     * On-disk layout of the config file.
+     */
+    private static class Config {
+        String type = "open-meteo";
+        String replayDirectory = "timesync-replay";
+        long replayLatencyMillis = 0;
+        double replayFailureRate = 0;
+        boolean replayShiftToToday = true;
+        long replaySeed = 0;
+    }
+
+    private WeatherProviders() {}
+
+    public static WeatherProvider load() {
+        Config config = ConfigFile.load(FILE_NAME, Config.class, Config::new);
+
+        if ("replay".equals(config.type)) {
+            Path directory = FabricLoader.getInstance().getConfigDir().resolve(config.replayDirectory);
+            LOGGER.info("Replaying recorded forecasts from {} ({} ms latency, {} failure rate).", directory, config.replayLatencyMillis, config.replayFailureRate);
+            return new ReplayWeatherProvider(directory, config.replayLatencyMillis, config.replayFailureRate, config.replayShiftToToday, config.replaySeed);
+        }
+
+        if (!"open-meteo".equals(config.type)) {
+            LOGGER.warn("Unknown weather provider '{}', using open-meteo.", config.type);
+        }
+        return new OpenMeteoProvider();
+    }
+}
@@ -1,173 +1,196 @@
 package com.chaoticloom.timesync;
 
-import com.google.gson.Gson;
+import com.google.common.annotations.VisibleForTesting;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.Util;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.storage.LevelResource;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.Writer;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
-//https://open-meteo.com/en/docs?latitude=37.3279072&longitude=-5.9400771&timezone=Europe%2FLondon&hourly=weather_code
 public class WeatherService {
-    private static final Gson GSON = new Gson();
-    private static final String API_URL = "https://api.open-meteo.com/v1/forecast?latitude=37.3279072&longitude=-5.9400771&current=weather_code&hourly=weather_code&forecast_days=16";
-    private static final String FILE_NAME = "weather_cache.json";
+    private static final String FILE_PREFIX = "weather_cache_";
+    private static final String FILE_EXTENSION = ".bin";
+
+    private static volatile WeatherProvider provider = new OpenMeteoProvider();
+
+    // Forecast per location, indexed like WeatherLocations.all(). Replaced as a whole, never modified in place.
+    private static volatile WeatherCache[] forecasts = new WeatherCache[0];
+    private static volatile boolean cacheLoaded = false; // Per server, the next singleplayer world reads its own cache
+    private static volatile int session = 0;
+
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            session++;
+            forecasts = new WeatherCache[0];
+            cacheLoaded = false;
+            ForecastScheduler.reset();
+        });
+    }
+
+    /**
+     * Refreshes the forecast of every location when due, and applies the weather to every level.
+     */
+    public static void updateWeather(MinecraftServer server) {
+        // Reading the binary fallback is cheap, so the tab list has data while the first fetch runs
+        if (!cacheLoaded) loadCache(server);
+
+        // Between refreshes the cached forecast already knows the weather for this hour
+        if (!ForecastScheduler.isDue(System.currentTimeMillis())) {
+            applyWeather(server);
+            return;
+        }
+
+        // 1. Try to fetch new data asynchronously, all locations in one request
+        List<WeatherLocation> locations = WeatherLocations.all();
+        CompletableFuture<List<WeatherCache>> request = ForecastScheduler.tryStart(() -> fetch(locations));
+        if (request == null) return; // Already fetching, that request will apply the weather
 
-    // Cache object in memory
-    private static WeatherCache cachedData;
+        int startedIn = session;
+        request.thenAccept(data -> {
+            if (startedIn != session) return; // The server stopped meanwhile
+
+            // Come back right when the next refresh is due instead of waiting for the periodic job
+            TickScheduler.at("weather-refresh", ForecastScheduler.getNextRefreshMillis(), WeatherService::updateWeather);
 
-    public static void updateWeather(ServerLevel level) {
-        // 1. Try to fetch new data asynchronously
-        fetchFromApi().thenAccept(data -> {
             if (data != null) {
-                cachedData = data;
-                saveCache(level, data);
-                applyWeather(level, getCurrentCodeFromCache());
+                WeatherCache[] updated = forecasts.clone();
+                for (int i = 0; i < updated.length && i < data.size(); i++) {
+                    if (data.get(i) != null) updated[i] = data.get(i);
+                }
+                forecasts = updated;
+
+                saveCache(server, updated);
+                applyWeather(server);
                 System.out.println("Weather synced with API.");
             } else {
-                // 2. If API fails, fallback to cache
-                if (cachedData == null) loadCache(level); // Try loading from disk if memory is empty
-
-                if (cachedData != null) {
-                    applyWeather(level, getCodeForCurrentHour());
-                    System.out.println("API failed. Using cached forecast.");
-                } else {
-                    System.out.println("No API or Cache. Vanilla weather taking over.");
-                }
+                // 2. If API fails, fallback to cache (already loaded from disk above if there was one)
+                applyWeather(server);
+                System.out.println("API failed. Using cached forecast where available.");
             }
         });
     }
 
-    private static CompletableFuture<WeatherCache> fetchFromApi() {
-        HttpClient client = HttpClient.newHttpClient();
-        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(API_URL)).GET().build();
-
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(json -> {
-                    try {
-                        return GSON.fromJson(json, WeatherCache.class);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        return null;
-                    }
-                })
-                .exceptionally(e -> {
-                    System.err.println("Failed to fetch weather: " + e.getMessage());
-                    return null;
-                });
+    private static CompletableFuture<List<WeatherCache>> fetch(List<WeatherLocation> locations) {
+        // A response that doesn't line up with the locations can't be assigned, treat it as a failure
+        return provider.fetch(locations).thenApply(data -> data != null && data.size() == locations.size() ? data : null);
     }
 
-    // Logic to find the correct weather code for the *current* real-world hour from the cached 16-day forecast
-    private static int getCodeForCurrentHour() {
-        if (cachedData == null || cachedData.hourly == null) return -1;
-
-        // Find the index in the time list that matches the current hour
-        String currentHourPrefix = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME).substring(0, 13);
-
-        for (int i = 0; i < cachedData.hourly.time.size(); i++) {
-            if (cachedData.hourly.time.get(i).startsWith(currentHourPrefix)) {
-                return cachedData.hourly.weather_code.get(i);
-            }
+    /**
+     * Parses an open-meteo forecast response. Returns null if the payload is malformed.
+     */
+    @VisibleForTesting
+    static List<WeatherCache> parse(Reader json) {
+        try {
+            return ForecastParser.parse(json);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
         }
-        return cachedData.current.weather_code; // Fallback to "current" snapshot
     }
 
-    private static int getCurrentCodeFromCache() {
-        if (cachedData != null && cachedData.current != null) return cachedData.current.weather_code;
-        return 0;
+    // Logic to find the correct weather code for the *current* real-world hour from the cached forecast
+    @VisibleForTesting
+    static int getCodeForCurrentHour(WeatherCache data) {
+        if (data == null) return -1;
+
+        return data.codeFor(System.currentTimeMillis());
     }
 
-    private static void applyWeather(ServerLevel level, int wmoCode) {
+    private static void applyWeather(MinecraftServer server) {
         // Run on main thread to be safe
-        level.getServer().execute(() -> {
-            int duration = 18000; // 15 minutes in ticks
-            WeatherState weatherState = WeatherState.fromCode(wmoCode);
-            WeatherStateStrength weatherStateStrength = WeatherStateStrength.fromCode(wmoCode);
-
-            if (weatherState == WeatherState.THUNDERSTORM) {
-                level.setWeatherParameters(0, duration, true, true);
-            } else if (weatherState == WeatherState.RAINING || weatherState == WeatherState.SNOWING) {
-                level.setWeatherParameters(0, duration, true, false);
-            } else if (weatherState == WeatherState.CLEAR || weatherState == WeatherState.CLOUDY || weatherState == WeatherState.FOG ) {
-                level.setWeatherParameters(duration, 0, false, false);
+        server.execute(() -> {
+            for (ServerLevel level : server.getAllLevels()) {
+                // The nether and the end have no sky to put weather in
+                if (!level.dimensionType().hasSkyLight()) continue;
+
+                WeatherCache data = getCache(level);
+                if (data == null) continue; // No API or Cache for this location. Vanilla weather taking over.
+
+                applyWeather(level, data);
             }
+        });
+    }
 
-            if (weatherState == WeatherState.CLOUDY) {
-                float amount = 0;
-                if (weatherStateStrength == WeatherStateStrength.SLIGHT) {
-                    amount = 0.35f;
-                } else if (weatherStateStrength == WeatherStateStrength.MODERATE) {
-                    amount = 0.5f;
-                } else if (weatherStateStrength == WeatherStateStrength.INTENSE) {
-                    amount = 1f;
-                }
+    private static void applyWeather(ServerLevel level, WeatherCache data) {
+        int duration = 18000; // 15 minutes in ticks
+        int wmoCode = getCodeForCurrentHour(data);
+        WeatherCondition condition = WeatherCondition.of(wmoCode);
 
-                ClientWeatherController.setCloudiness(amount);
+        // Unknown codes leave vanilla weather alone
+        if (condition.state() != null) {
+            if (condition.raining()) {
+                level.setWeatherParameters(0, duration, true, condition.thundering());
             } else {
-                ClientWeatherController.setCloudiness(0);
+                level.setWeatherParameters(duration, 0, false, false);
             }
-        });
+        }
+
+        // Clients render cloudiness and fog from what the server tells them
+        WeatherSync.update(level, wmoCode, data);
     }
 
     // --- Persistence Methods ---
 
-    private static void saveCache(ServerLevel level, WeatherCache data) {
-        try {
-            Path path = getFilePath(level);
+    private static void saveCache(MinecraftServer server, WeatherCache[] data) {
+        List<WeatherLocation> locations = WeatherLocations.all();
 
-            // Get the folder that contains the file
-            Path parentDir = path.getParent();
+        // Keep disk IO off the HTTP callback thread
+        Util.ioPool().execute(() -> {
+            for (int i = 0; i < data.length && i < locations.size(); i++) {
+                if (data[i] == null) continue;
 
-            // If the folder path is not null and doesn't exist, create it (including any necessary parent folders)
-            if (parentDir != null && !Files.exists(parentDir)) {
-                Files.createDirectories(parentDir);
+                try {
+                    ForecastFile.write(getFilePath(server, locations.get(i)), data[i]);
+                } catch (IOException e) {
+                    System.err.println("Failed to save weather cache: " + e.getMessage());
+                    e.printStackTrace();
+                }
             }
-
-            Writer writer = Files.newBufferedWriter(path);
-            GSON.toJson(data, writer);
-            writer.close();
-        } catch (IOException e) {
-            System.err.println("Failed to save weather cache: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
-    private static void loadCache(ServerLevel level) {
-        try {
-            Path path = getFilePath(level);
-            if (Files.exists(path)) {
-                Reader reader = Files.newBufferedReader(path);
-                cachedData = GSON.fromJson(reader, WeatherCache.class);
-                reader.close();
+    private static void loadCache(MinecraftServer server) {
+        List<WeatherLocation> locations = WeatherLocations.all();
+        WeatherCache[] loaded = new WeatherCache[locations.size()];
+
+        for (int i = 0; i < loaded.length; i++) {
+            try {
+                loaded[i] = ForecastFile.read(getFilePath(server, locations.get(i)));
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+
+        forecasts = loaded;
+        cacheLoaded = true;
     }
 
-    private static Path getFilePath(ServerLevel level) {
+    private static Path getFilePath(MinecraftServer server, WeatherLocation location) {
         // Using the user provided path logic
-        return level.getServer().getWorldPath(LevelResource.ROOT)
-                .resolve(level.dimension().location().getPath()) // This usually adds "overworld" or similar
-                .resolve(FILE_NAME);
+        return server.getWorldPath(LevelResource.ROOT)
+                .resolve(server.overworld().dimension().location().getPath()) // This usually adds "overworld" or similar
+                .resolve(FILE_PREFIX + location.name() + FILE_EXTENSION);
+    }
+
+    public static void setProvider(WeatherProvider provider) {
+        WeatherService.provider = provider;
     }
 
-    public static WeatherCache getCache() {
-        return cachedData;
+    /**
+     * Returns the forecast of the location the level follows, or null if there is none yet.
+     */
+    public static WeatherCache getCache(ServerLevel level) {
+        return getCache(WeatherLocations.indexOf(level));
     }
 
-    public static int getWMO() {
-        return getCurrentCodeFromCache();
+    public static WeatherCache getCache(int location) {
+        WeatherCache[] current = forecasts;
+        return location >= 0 && location < current.length ? current[location] : null;
     }
-}
\ No newline at end of file
+}
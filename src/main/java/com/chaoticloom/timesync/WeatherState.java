@@ -36,15 +36,9 @@ public enum WeatherState {
     /**
      * Utility method to resolve a WMO code into a WeatherState.
      * Returns null if no state matches the code.
+     * Prefer {@link WeatherCondition#of(int)} when more than the state is needed.
      */
     public static WeatherState fromCode(int code) {
-        for (WeatherState state : values()) {
-            for (int c : state.codes) {
-                if (c == code) {
-                    return state;
-                }
-            }
-        }
-        return null;
+        return WeatherCondition.of(code).state();
     }
 }
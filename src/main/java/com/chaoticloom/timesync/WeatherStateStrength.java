@@ -16,13 +16,6 @@ public enum WeatherStateStrength {
     }
 
     public static WeatherStateStrength fromCode(int code) {
-        for (WeatherStateStrength state : values()) {
-            for (int c : state.codes) {
-                if (c == code) {
-                    return state;
-                }
-            }
-        }
-        return MODERATE;
+        return WeatherCondition.of(code).strength();
     }
 }
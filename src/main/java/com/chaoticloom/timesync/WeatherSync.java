@@ -0,0 +1,96 @@
+package com.chaoticloom.timesync;
+
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.S2CPlayChannelEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the weather visuals (cloudiness, fog) to clients over {@link TimeSync#WEATHER_PACKET_ID}.
+ *
+ * Each message holds the current code plus the next scheduled change from the forecast, so the client can switch
+ * on its own when that hour comes. A level only sends again when that pair changes, which is at most once per hour.
+ */
+public final class WeatherSync {
+    /**
+     * What a client needs to render the weather until the next change.
+     * @param nextChangeMillis Wall clock of the switch to nextCode, -1 if nothing changes within the forecast.
+     */
+    public record Snapshot(int code, int nextCode, long nextChangeMillis) {
+        public static final Snapshot NONE = new Snapshot(-1, -1, -1);
+
+        public int codeAt(long nowMillis) {
+            return nextChangeMillis >= 0 && nowMillis >= nextChangeMillis ? nextCode : code;
+        }
+
+        public void write(FriendlyByteBuf buf) {
+            buf.writeByte(code);
+            buf.writeByte(nextCode);
+            buf.writeLong(nextChangeMillis);
+        }
+
+        public static Snapshot read(FriendlyByteBuf buf) {
+            return new Snapshot(buf.readByte(), buf.readByte(), buf.readLong());
+        }
+    }
+
+    // Last snapshot sent per level, only touched on the server thread
+    private static final Map<ResourceKey<Level>, Snapshot> SENT = new HashMap<>();
+
+    private WeatherSync() {}
+
+    public static void init() {
+        // Not on JOIN: the client's channel list arrives after it, so canSend is still false there
+        S2CPlayChannelEvents.REGISTER.register((handler, sender, server, channels) -> {
+            if (!channels.contains(TimeSync.WEATHER_PACKET_ID)) return;
+
+            server.execute(() -> {
+                ServerPlayer player = handler.getPlayer();
+                write(player, SENT.getOrDefault(player.level().dimension(), Snapshot.NONE));
+            });
+        });
+
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> {
+            send(player, SENT.getOrDefault(destination.dimension(), Snapshot.NONE));
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> SENT.clear());
+    }
+
+    /**
+     * Called on the server thread whenever weather gets applied to a level.
+     * Only reaches the players if the snapshot changed since the last one.
+     */
+    public static void update(ServerLevel level, int code, WeatherCache forecast) {
+        long nextHour = forecast != null ? forecast.nextChangeHour(System.currentTimeMillis(), code) : -1;
+        Snapshot snapshot = nextHour < 0
+                ? new Snapshot(code, code, -1)
+                : new Snapshot(code, forecast.codeAtHour(nextHour), nextHour * WeatherCache.HOUR_MILLIS);
+
+        if (snapshot.equals(SENT.put(level.dimension(), snapshot))) return;
+
+        for (ServerPlayer player : level.players()) {
+            send(player, snapshot);
+        }
+    }
+
+    private static void send(ServerPlayer player, Snapshot snapshot) {
+        if (!ServerPlayNetworking.canSend(player, TimeSync.WEATHER_PACKET_ID)) return; // Vanilla client
+        write(player, snapshot);
+    }
+
+    private static void write(ServerPlayer player, Snapshot snapshot) {
+        FriendlyByteBuf buf = PacketByteBufs.create();
+        snapshot.write(buf);
+        ServerPlayNetworking.send(player, TimeSync.WEATHER_PACKET_ID, buf);
+    }
+}
@@ -0,0 +1,43 @@
+package com.chaoticloom.timesync.mixin;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.AbstractCookingRecipe;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(AbstractFurnaceBlockEntity.class)
+public interface AbstractFurnaceBlockEntityAccessor {
+    @Accessor("litTime")
+    int getLitTime();
+
+    @Accessor("litTime")
+    void setLitTime(int litTime);
+
+    @Accessor("cookingProgress")
+    int getCookingProgress();
+
+    @Accessor("cookingProgress")
+    void setCookingProgress(int cookingProgress);
+
+    @Accessor("cookingTotalTime")
+    int getCookingTotalTime();
+
+    @Accessor("items")
+    NonNullList<ItemStack> getItems();
+
+    @Accessor("quickCheck")
+    RecipeManager.CachedCheck<Container, ? extends AbstractCookingRecipe> getQuickCheck();
+
+    @Invoker("canBurn")
+    static boolean callCanBurn(RegistryAccess registryAccess, @Nullable Recipe<?> recipe, NonNullList<ItemStack> items, int maxStackSize) {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,23 @@
+package com.chaoticloom.timesync.mixin;
+
+import com.chaoticloom.timesync.IndexedChunk;
+import com.chaoticloom.timesync.TimeSensitiveIndex;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(ChunkAccess.class)
+public abstract class ChunkAccessMixin implements IndexedChunk {
+    @Unique
+    private TimeSensitiveIndex timesync$index;
+
+    @Override
+    public TimeSensitiveIndex timesync$getIndex() {
+        return timesync$index;
+    }
+
+    @Override
+    public void timesync$setIndex(TimeSensitiveIndex index) {
+        this.timesync$index = index;
+    }
+}
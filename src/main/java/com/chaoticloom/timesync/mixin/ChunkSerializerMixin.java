@@ -0,0 +1,46 @@
+package com.chaoticloom.timesync.mixin;
+
+import com.chaoticloom.timesync.IndexedChunk;
+import com.chaoticloom.timesync.TimeSensitiveIndex;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.ai.village.poi.PoiManager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ImposterProtoChunk;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import net.minecraft.world.level.chunk.storage.ChunkSerializer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Stores the {@link TimeSensitiveIndex} of full chunks. Chunks that are still generating don't keep one, features can
+ * place crops without going through LevelChunk.setBlockState, so it is built once they become a LevelChunk.
+ */
+@Mixin(ChunkSerializer.class)
+public abstract class ChunkSerializerMixin {
+    @Inject(method = "write", at = @At("RETURN"))
+    private static void writeTimeSensitiveIndex(ServerLevel level, ChunkAccess chunk, CallbackInfoReturnable<CompoundTag> cir) {
+        if (!(chunk instanceof LevelChunk)) return;
+
+        TimeSensitiveIndex index = ((IndexedChunk) chunk).timesync$getIndex();
+        if (index != null) {
+            cir.getReturnValue().put(TimeSensitiveIndex.TAG, index.save());
+        }
+    }
+
+    // Full chunks are read as an ImposterProtoChunk around the LevelChunk that ends up in the world
+    @Inject(method = "read", at = @At("RETURN"))
+    private static void readTimeSensitiveIndex(ServerLevel level, PoiManager poiManager, ChunkPos pos, CompoundTag tag, CallbackInfoReturnable<ProtoChunk> cir) {
+        if (!(cir.getReturnValue() instanceof ImposterProtoChunk imposter)) return;
+        if (!tag.contains(TimeSensitiveIndex.TAG, Tag.TAG_COMPOUND)) return;
+
+        LevelChunk chunk = imposter.getWrapped();
+        TimeSensitiveIndex index = TimeSensitiveIndex.load(tag.getCompound(TimeSensitiveIndex.TAG), chunk.getSections().length);
+        ((IndexedChunk) chunk).timesync$setIndex(index);
+    }
+}
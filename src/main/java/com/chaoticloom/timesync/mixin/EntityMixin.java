@@ -0,0 +1,39 @@
+package com.chaoticloom.timesync.mixin;
+
+import com.chaoticloom.timesync.LastSeenEntity;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.entity.Entity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(Entity.class)
+public abstract class EntityMixin implements LastSeenEntity {
+    @Unique
+    private long timesync$lastSeen = 0;
+
+    // A saved entity is simulated up to the moment it is written
+    @Inject(method = "saveWithoutId", at = @At("RETURN"))
+    private void writeLastSeen(CompoundTag tag, CallbackInfoReturnable<CompoundTag> cir) {
+        tag.putLong(TAG, System.currentTimeMillis());
+    }
+
+    @Inject(method = "load", at = @At("TAIL"))
+    private void readLastSeen(CompoundTag tag, CallbackInfo ci) {
+        this.timesync$lastSeen = tag.contains(TAG, Tag.TAG_LONG) ? tag.getLong(TAG) : 0;
+    }
+
+    @Override
+    public long timesync$getLastSeen() {
+        return timesync$lastSeen;
+    }
+
+    @Override
+    public void timesync$setLastSeen(long lastSeen) {
+        this.timesync$lastSeen = lastSeen;
+    }
+}
@@ -39,20 +39,16 @@ public class FogRendererMixin {
             return;
         }
 
-        // 2. Retrieve your current Weather State
-        // Assuming you have a static way to access the current weather.
-        // If not, you might need to access it via a client instance.
-        int wmo = WeatherService.getWMO();
-        WeatherState weatherState = WeatherState.fromCode(wmo);
-        WeatherStateStrength weatherStateStrength = WeatherStateStrength.fromCode(wmo);
+        // 2. Retrieve the current Weather State, as sent by the server
+        WeatherCondition condition = ClientWeatherController.getCondition();
 
-        if (weatherState == WeatherState.FOG) {
+        if (condition.state() == WeatherState.FOG) {
             float start;
             float end;
 
             // 4. Calculate Density based on Strength
             // Note: 'viewDistance' is roughly the render distance in blocks (e.g., 16 chunks = 256 blocks)
-            switch (weatherStateStrength) {
+            switch (condition.strength()) {
                 case SLIGHT -> {
                     // Light fog: Starts a bit away, ends near the edge of view
                     start = 0f;
@@ -0,0 +1,27 @@
+package com.chaoticloom.timesync.mixin;
+
+import com.chaoticloom.timesync.IndexedChunk;
+import com.chaoticloom.timesync.TimeSensitiveIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin {
+    // Returns the old state when something changed, null otherwise
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void updateTimeSensitiveIndex(BlockPos pos, BlockState state, boolean isMoving, CallbackInfoReturnable<BlockState> cir) {
+        BlockState oldState = cir.getReturnValue();
+        if (oldState == null) return;
+
+        LevelChunk chunk = (LevelChunk) (Object) this;
+        TimeSensitiveIndex index = ((IndexedChunk) chunk).timesync$getIndex();
+        if (index == null) return; // Not built yet, it will see the new block when it is
+
+        index.onBlockChanged(chunk.getSectionIndex(pos.getY()), pos, oldState, state);
+    }
+}
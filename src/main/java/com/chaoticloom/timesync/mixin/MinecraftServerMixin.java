@@ -0,0 +1,36 @@
+package com.chaoticloom.timesync.mixin;
+
+import com.chaoticloom.timesync.TimeSync;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.players.PlayerList;
+import net.minecraft.world.level.Level;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(MinecraftServer.class)
+public abstract class MinecraftServerMixin {
+    /**
+     * Every 20 ticks the server broadcasts the time of each level to its players.
+     * Clients running the mod extrapolate the synced time themselves (see ClockDiscipline),
+     * so only vanilla clients still get the packet.
+     */
+    @Redirect(
+            method = "tickChildren",
+            at = @At(
+                    value = "INVOKE",
+                    target = "Lnet/minecraft/server/players/PlayerList;broadcastAll(Lnet/minecraft/network/protocol/Packet;Lnet/minecraft/resources/ResourceKey;)V"
+            )
+    )
+    private void skipTimeBroadcastForSyncedClients(PlayerList playerList, Packet<?> packet, ResourceKey<Level> dimension) {
+        for (ServerPlayer player : playerList.getPlayers()) {
+            if (player.level().dimension() == dimension && !ServerPlayNetworking.canSend(player, TimeSync.SYNC_PACKET_ID)) {
+                player.connection.send(packet);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.chaoticloom.timesync.mixin;
+
+import com.chaoticloom.timesync.PlayerLanguage;
+import com.chaoticloom.timesync.Translations;
+import net.minecraft.network.protocol.game.ServerboundClientInformationPacket;
+import net.minecraft.server.level.ServerPlayer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerPlayer.class)
+public abstract class ServerPlayerMixin implements PlayerLanguage {
+    @Unique
+    private String timesync$language = Translations.DEFAULT_LANGUAGE;
+
+    @Inject(method = "updateOptions", at = @At("HEAD"))
+    private void captureLanguage(ServerboundClientInformationPacket packet, CallbackInfo ci) {
+        this.timesync$language = packet.language();
+    }
+
+    // Respawning and leaving the end create a new player, the client doesn't send its options again
+    @Inject(method = "restoreFrom", at = @At("TAIL"))
+    private void copyLanguage(ServerPlayer oldPlayer, boolean keepEverything, CallbackInfo ci) {
+        this.timesync$language = ((PlayerLanguage) oldPlayer).timesync$getLanguage();
+    }
+
+    @Override
+    public String timesync$getLanguage() {
+        return timesync$language;
+    }
+}